@@ -0,0 +1,36 @@
+package analizador.diagnostico;
+
+/**
+ * Códigos de diagnóstico con el patrón de su mensaje. Los argumentos se
+ * sustituyen solo cuando alguien pide el texto.
+ */
+public enum CodigoDiagnostico {
+    // Léxicos
+    ERROR_LECTURA("Error de lectura: %s"),
+    SIMBOLO_NO_RECONOCIDO("Símbolo no reconocido: %s"),
+    METODO_DESCONOCIDO("Método o propiedad desconocida: %s"),
+    NUMERO_INVALIDO("Número inválido: %s"),
+
+    // Sintácticos
+    SE_ESPERABA("Se esperaba %s"),
+    ROBOT_YA_DECLARADO("Robot '%s' ya declarado"),
+    ROBOT_NO_DECLARADO("Robot '%s' no declarado"),
+    VALOR_FUERA_DE_RANGO("Valor fuera de rango para '%s': %s (rango permitido: [%s..%s])"),
+    REPETICIONES_NO_POSITIVAS("El número de repeticiones debe ser positivo, se encontró: %s"),
+    ANIDAMIENTO_EXCESIVO("Bloques 'repetir' anidados en más de %s niveles");
+
+    private final String patron;
+
+    CodigoDiagnostico(String patron) {
+        this.patron = patron;
+    }
+
+    public String getPatron() {
+        return patron;
+    }
+
+    // Construye el mensaje con los argumentos dados
+    public String formatear(Object... argumentos) {
+        return String.format(patron, argumentos);
+    }
+}
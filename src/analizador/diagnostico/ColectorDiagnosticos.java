@@ -0,0 +1,42 @@
+package analizador.diagnostico;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conserva los diagnósticos en orden de llegada, sin formatear sus mensajes
+ */
+public class ColectorDiagnosticos implements DiagnosticSink {
+    private final List<Diagnostico> diagnosticos;
+
+    public ColectorDiagnosticos() {
+        this.diagnosticos = new ArrayList<>();
+    }
+
+    @Override
+    public void reportar(TipoDiagnostico tipo, CodigoDiagnostico codigo, int linea, int columna,
+            Object... argumentos) {
+        diagnosticos.add(new Diagnostico(tipo, codigo, linea, columna, argumentos));
+    }
+
+    public List<Diagnostico> getDiagnosticos() {
+        return diagnosticos;
+    }
+
+    // Textos completos de los diagnósticos, formateados en este momento
+    public List<String> getMensajes() {
+        List<String> mensajes = new ArrayList<>(diagnosticos.size());
+        for (Diagnostico diagnostico : diagnosticos) {
+            mensajes.add(diagnostico.toString());
+        }
+        return mensajes;
+    }
+
+    public int cantidad() {
+        return diagnosticos.size();
+    }
+
+    public boolean estaVacio() {
+        return diagnosticos.isEmpty();
+    }
+}
@@ -0,0 +1,15 @@
+package analizador.diagnostico;
+
+/**
+ * Escribe cada diagnóstico en System.err en el momento en que se reporta. Los
+ * analizadores no tienen destino por omisión; la interfaz gráfica y Parser
+ * usan este para mostrar los errores en consola.
+ */
+public class ConsolaDiagnosticos implements DiagnosticSink {
+
+    @Override
+    public void reportar(TipoDiagnostico tipo, CodigoDiagnostico codigo, int linea, int columna,
+            Object... argumentos) {
+        System.err.println(new Diagnostico(tipo, codigo, linea, columna, argumentos));
+    }
+}
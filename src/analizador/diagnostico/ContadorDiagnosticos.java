@@ -0,0 +1,36 @@
+package analizador.diagnostico;
+
+/**
+ * Solo cuenta los diagnósticos por tipo y por código; no guarda ni formatea nada
+ */
+public class ContadorDiagnosticos implements DiagnosticSink {
+    private final int[] porTipo;
+    private final int[] porCodigo;
+    private int total;
+
+    public ContadorDiagnosticos() {
+        this.porTipo = new int[TipoDiagnostico.values().length];
+        this.porCodigo = new int[CodigoDiagnostico.values().length];
+        this.total = 0;
+    }
+
+    @Override
+    public void reportar(TipoDiagnostico tipo, CodigoDiagnostico codigo, int linea, int columna,
+            Object... argumentos) {
+        porTipo[tipo.ordinal()]++;
+        porCodigo[codigo.ordinal()]++;
+        total++;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getCantidad(TipoDiagnostico tipo) {
+        return porTipo[tipo.ordinal()];
+    }
+
+    public int getCantidad(CodigoDiagnostico codigo) {
+        return porCodigo[codigo.ordinal()];
+    }
+}
@@ -0,0 +1,11 @@
+package analizador.diagnostico;
+
+/**
+ * Destino de los diagnósticos del análisis. Los analizadores entregan los datos
+ * estructurados; cada implementación decide si los guarda, los cuenta o los
+ * escribe, y solo formatea el mensaje si lo necesita.
+ */
+public interface DiagnosticSink {
+
+    void reportar(TipoDiagnostico tipo, CodigoDiagnostico codigo, int linea, int columna, Object... argumentos);
+}
@@ -0,0 +1,53 @@
+package analizador.diagnostico;
+
+/**
+ * Diagnóstico estructurado. El mensaje se formatea al consultarlo, no al
+ * reportarlo.
+ */
+public class Diagnostico {
+    private final TipoDiagnostico tipo;
+    private final CodigoDiagnostico codigo;
+    private final int linea;
+    private final int columna;
+    private final Object[] argumentos;
+
+    public Diagnostico(TipoDiagnostico tipo, CodigoDiagnostico codigo, int linea, int columna, Object... argumentos) {
+        this.tipo = tipo;
+        this.codigo = codigo;
+        this.linea = linea;
+        this.columna = columna;
+        this.argumentos = argumentos;
+    }
+
+    // Getters
+    public TipoDiagnostico getTipo() {
+        return tipo;
+    }
+
+    public CodigoDiagnostico getCodigo() {
+        return codigo;
+    }
+
+    public int getLinea() {
+        return linea;
+    }
+
+    public int getColumna() {
+        return columna;
+    }
+
+    public Object[] getArgumentos() {
+        return argumentos;
+    }
+
+    // Mensaje sin la posición
+    public String getMensaje() {
+        return codigo.formatear(argumentos);
+    }
+
+    // Texto completo, p. ej. "Error léxico en línea 3, columna 7: Número inválido: 9999999999"
+    @Override
+    public String toString() {
+        return tipo.getPrefijo() + " en línea " + linea + ", columna " + columna + ": " + getMensaje();
+    }
+}
@@ -0,0 +1,104 @@
+package analizador.diagnostico;
+
+import java.io.PrintStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Escribe los diagnósticos desde un hilo aparte, a través de una cola de
+ * capacidad fija. El análisis nunca se bloquea esperando la consola: si la cola
+ * está llena, el diagnóstico se descarta y solo se cuenta. Al cerrar se vacía
+ * la cola y se informa cuántos se descartaron; lo que se reporta después de
+ * cerrar también se cuenta como descartado.
+ */
+public class RegistroAsincronoDiagnosticos implements DiagnosticSink, AutoCloseable {
+    // Marca de fin para el hilo escritor
+    private static final Diagnostico FIN = new Diagnostico(null, null, 0, 0);
+
+    private final BlockingQueue<Diagnostico> cola;
+    private final PrintStream salida;
+    private final Thread escritor;
+    private final AtomicLong descartados;
+
+    // Los reportes toman la lectura y close() la escritura, así ningún
+    // diagnóstico queda en la cola detrás de FIN
+    private final ReadWriteLock cierre;
+    private boolean cerrado;
+
+    public RegistroAsincronoDiagnosticos(int capacidad) {
+        this(capacidad, System.err);
+    }
+
+    public RegistroAsincronoDiagnosticos(int capacidad, PrintStream salida) {
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.salida = salida;
+        this.descartados = new AtomicLong();
+        this.cierre = new ReentrantReadWriteLock();
+        this.cerrado = false;
+        this.escritor = new Thread(this::escribir, "registro-diagnosticos");
+        this.escritor.setDaemon(true);
+        this.escritor.start();
+    }
+
+    @Override
+    public void reportar(TipoDiagnostico tipo, CodigoDiagnostico codigo, int linea, int columna,
+            Object... argumentos) {
+        Diagnostico diagnostico = new Diagnostico(tipo, codigo, linea, columna, argumentos);
+        cierre.readLock().lock();
+        try {
+            if (cerrado || !cola.offer(diagnostico)) {
+                descartados.incrementAndGet();
+            }
+        } finally {
+            cierre.readLock().unlock();
+        }
+    }
+
+    // Ciclo del hilo escritor: el mensaje se formatea aquí, fuera del análisis
+    private void escribir() {
+        try {
+            while (true) {
+                Diagnostico diagnostico = cola.take();
+                if (diagnostico == FIN) {
+                    break;
+                }
+                salida.println(diagnostico);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Diagnósticos que no se escribieron porque la cola estaba llena o el
+    // registro ya estaba cerrado
+    public long getDescartados() {
+        return descartados.get();
+    }
+
+    // Escribe lo pendiente y detiene el hilo escritor
+    @Override
+    public void close() {
+        cierre.writeLock().lock();
+        try {
+            if (cerrado) {
+                return;
+            }
+            cerrado = true;
+        } finally {
+            cierre.writeLock().unlock();
+        }
+        try {
+            cola.put(FIN);
+            escritor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (descartados.get() > 0) {
+            salida.println("(" + descartados.get() + " diagnósticos descartados)");
+        }
+        salida.flush();
+    }
+}
@@ -0,0 +1,20 @@
+package analizador.diagnostico;
+
+/**
+ * Fase del análisis que produce un diagnóstico
+ */
+public enum TipoDiagnostico {
+    LEXICO("Error léxico"),
+    SINTACTICO("Error sintáctico"),
+    SEMANTICO("Error semántico");
+
+    private final String prefijo;
+
+    TipoDiagnostico(String prefijo) {
+        this.prefijo = prefijo;
+    }
+
+    public String getPrefijo() {
+        return prefijo;
+    }
+}
@@ -0,0 +1,184 @@
+package analizador.ejecucion;
+
+import java.util.Arrays;
+
+import analizador.sintactico.ArbolPrograma;
+
+/**
+ * Calcula, sin ejecutar el programa, cuántos comandos emite cada robot y
+ * cuánto tarda según ModeloMovimiento. Recorre el Bytecode una sola vez:
+ * cada bloque repetir se resume una vez por robot con ResumenCosto y su
+ * resumen se multiplica por las vueltas, así que el trabajo depende del
+ * tamaño del programa y no de los comandos que ejecuta: es proporcional al
+ * tamaño por la cantidad de velocidades distintas que fija el programa (a lo
+ * sumo 100 en un programa válido). Los resultados coinciden exactamente con
+ * los de Simulador, redondeo de cada giro incluido, y se saturan en
+ * Long.MAX_VALUE.
+ */
+public class AnalizadorCosto {
+    private final Bytecode programa;
+
+    // Resultados por robot indexados por su orden de declaración
+    private long[] comandosPorRobot;
+    private long[] duracionPorRobot;
+    private long comandos;
+    private long duracion;
+
+    // Niveles abiertos: el programa y cada bloque repetir en curso. Cada nivel
+    // guarda solo los robots que aparecen en él; posicionRobot indica dónde está
+    // el resumen de cada robot en el nivel de arriba y posicionesAnteriores
+    // permite recuperarla al cerrar el nivel
+    private Nivel[] niveles;
+    private int profundidad;
+    private int[] nivelRobot;
+    private int[] posicionRobot;
+    private int[] velocidades;
+
+    public AnalizadorCosto(Bytecode programa) {
+        this.programa = programa;
+        this.comandosPorRobot = new long[0];
+        this.duracionPorRobot = new long[0];
+    }
+
+    // Compila el árbol antes de analizarlo
+    public AnalizadorCosto(ArbolPrograma arbol) {
+        this(new Compilador(arbol).compilar());
+    }
+
+    // Recorre el código una vez y calcula los resultados
+    public void analizar() {
+        int cantidadRobots = programa.getCantidadRobots();
+        nivelRobot = new int[cantidadRobots];
+        posicionRobot = new int[cantidadRobots];
+        Arrays.fill(nivelRobot, -1);
+        velocidades = ResumenCosto.velocidadesPosibles(programa.getCodigo());
+        niveles = new Nivel[16];
+        profundidad = 0;
+        abrirNivel(1);
+
+        int[] codigo = programa.getCodigo();
+        for (int pc = 0; pc < codigo.length; pc += Bytecode.TAMANO_INSTRUCCION) {
+            int operacion = codigo[pc];
+            if (operacion == Bytecode.REPETIR) {
+                abrirNivel(codigo[pc + 1]);
+            } else if (operacion == Bytecode.FIN_REPETIR) {
+                cerrarNivel();
+            } else {
+                resumen(codigo[pc + 1]).agregarAccion(Bytecode.miembroDe(operacion), codigo[pc + 2]);
+            }
+        }
+
+        // El programa parte del estado inicial de cada robot
+        comandosPorRobot = new long[cantidadRobots];
+        duracionPorRobot = new long[cantidadRobots];
+        comandos = 0;
+        duracion = 0;
+        Nivel principal = niveles[0];
+        for (int i = 0; i < principal.cantidad; i++) {
+            int robot = principal.robots[i];
+            ResumenCosto total = ResumenCosto.estadoInicial(velocidades);
+            total.componer(principal.resumenes[i]);
+            comandosPorRobot[robot] = total.comandos;
+            duracionPorRobot[robot] = total.fijo;
+            comandos = ResumenCosto.sumar(comandos, total.comandos);
+            duracion = ResumenCosto.sumar(duracion, total.fijo);
+        }
+        niveles = null;
+        nivelRobot = null;
+        posicionRobot = null;
+        velocidades = null;
+    }
+
+    // Resumen del robot en el nivel actual, creándolo vacío si no aparece aún
+    private ResumenCosto resumen(int robot) {
+        Nivel nivel = niveles[profundidad - 1];
+        if (nivelRobot[robot] == profundidad - 1) {
+            return nivel.resumenes[posicionRobot[robot]];
+        }
+        return nivel.agregar(robot, new ResumenCosto(velocidades), nivelRobot, posicionRobot, profundidad - 1);
+    }
+
+    private void abrirNivel(int vueltas) {
+        if (profundidad == niveles.length) {
+            niveles = Arrays.copyOf(niveles, profundidad * 2);
+        }
+        if (niveles[profundidad] == null) {
+            niveles[profundidad] = new Nivel();
+        }
+        niveles[profundidad].reiniciar(vueltas);
+        profundidad++;
+    }
+
+    // Cierra un bloque: multiplica el resumen de cada robot por las vueltas y
+    // lo agrega al final de su resumen en el nivel de arriba
+    private void cerrarNivel() {
+        Nivel nivel = niveles[--profundidad];
+        for (int i = 0; i < nivel.cantidad; i++) {
+            int robot = nivel.robots[i];
+            nivelRobot[robot] = nivel.nivelesAnteriores[i];
+            posicionRobot[robot] = nivel.posicionesAnteriores[i];
+            ResumenCosto bloque = nivel.resumenes[i].repetir(nivel.vueltas);
+            nivel.resumenes[i] = null;
+            if (bloque.comandos > 0) {
+                resumen(robot).componer(bloque);
+            }
+        }
+    }
+
+    // Total de comandos que emite el programa
+    public long getComandos() {
+        return comandos;
+    }
+
+    // Duración total estimada en microsegundos
+    public long getDuracion() {
+        return duracion;
+    }
+
+    public long getComandos(int robot) {
+        return comandosPorRobot[robot];
+    }
+
+    public long getDuracion(int robot) {
+        return duracionPorRobot[robot];
+    }
+
+    // Indica si algún total superó el rango de long
+    public boolean isSaturado() {
+        return comandos == Long.MAX_VALUE || duracion == Long.MAX_VALUE;
+    }
+
+    // Robots que aparecen en un nivel con sus resúmenes
+    private static final class Nivel {
+        int vueltas;
+        int cantidad;
+        int[] robots = new int[4];
+        ResumenCosto[] resumenes = new ResumenCosto[4];
+        int[] nivelesAnteriores = new int[4];
+        int[] posicionesAnteriores = new int[4];
+
+        void reiniciar(int vueltas) {
+            this.vueltas = vueltas;
+            this.cantidad = 0;
+        }
+
+        // Agrega el robot al nivel y guarda dónde estaba su resumen
+        ResumenCosto agregar(int robot, ResumenCosto resumen, int[] nivelRobot, int[] posicionRobot, int nivel) {
+            if (cantidad == robots.length) {
+                int capacidad = cantidad * 2;
+                robots = Arrays.copyOf(robots, capacidad);
+                resumenes = Arrays.copyOf(resumenes, capacidad);
+                nivelesAnteriores = Arrays.copyOf(nivelesAnteriores, capacidad);
+                posicionesAnteriores = Arrays.copyOf(posicionesAnteriores, capacidad);
+            }
+            robots[cantidad] = robot;
+            resumenes[cantidad] = resumen;
+            nivelesAnteriores[cantidad] = nivelRobot[robot];
+            posicionesAnteriores[cantidad] = posicionRobot[robot];
+            nivelRobot[robot] = nivel;
+            posicionRobot[robot] = cantidad;
+            cantidad++;
+            return resumen;
+        }
+    }
+}
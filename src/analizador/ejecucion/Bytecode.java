@@ -0,0 +1,101 @@
+package analizador.ejecucion;
+
+import java.util.Arrays;
+
+import analizador.lexico.TipoToken;
+
+/**
+ * Programa compilado a un arreglo plano de enteros. Cada instrucción ocupa
+ * TAMANO_INSTRUCCION enteros: el código de operación y dos operandos.
+ *
+ * - BASE, CUERPO, GARRA, VELOCIDAD: robot, valor
+ * - ABRIR_GARRA, CERRAR_GARRA, INICIAR, DETENER: robot, 0
+ * - REPETIR: vueltas, posición siguiente a su FIN_REPETIR
+ * - FIN_REPETIR: posición de la primera instrucción del cuerpo, 0
+ *
+ * Los robots se identifican por su orden de declaración.
+ */
+public final class Bytecode {
+    public static final int BASE = 0;
+    public static final int CUERPO = 1;
+    public static final int GARRA = 2;
+    public static final int VELOCIDAD = 3;
+    public static final int ABRIR_GARRA = 4;
+    public static final int CERRAR_GARRA = 5;
+    public static final int INICIAR = 6;
+    public static final int DETENER = 7;
+    public static final int REPETIR = 8;
+    public static final int FIN_REPETIR = 9;
+
+    public static final int TAMANO_INSTRUCCION = 3;
+
+    // Miembro del lenguaje de cada código de acción
+    private static final TipoToken[] MIEMBROS = {
+            TipoToken.BASE, TipoToken.CUERPO, TipoToken.GARRA, TipoToken.VELOCIDAD,
+            TipoToken.ABRIR_GARRA, TipoToken.CERRAR_GARRA, TipoToken.INICIAR, TipoToken.DETENER,
+            TipoToken.REPETIR, null };
+
+    // Código de acción de cada miembro, indexado por su ordinal (-1 si no es acción)
+    private static final int[] CODIGOS = new int[TipoToken.values().length];
+
+    static {
+        Arrays.fill(CODIGOS, -1);
+        for (int codigo = BASE; codigo <= DETENER; codigo++) {
+            CODIGOS[MIEMBROS[codigo].ordinal()] = codigo;
+        }
+    }
+
+    private final int[] codigo;
+    private final int cantidadRobots;
+
+    public Bytecode(int[] codigo, int cantidadRobots) {
+        this.codigo = codigo;
+        this.cantidadRobots = cantidadRobots;
+    }
+
+    // Código de acción de un miembro del lenguaje, o -1 si no es una acción
+    public static int codigoDe(TipoToken miembro) {
+        return CODIGOS[miembro.ordinal()];
+    }
+
+    // Miembro del lenguaje de un código de operación
+    public static TipoToken miembroDe(int operacion) {
+        return MIEMBROS[operacion];
+    }
+
+    // Arreglo de instrucciones; no debe modificarse
+    public int[] getCodigo() {
+        return codigo;
+    }
+
+    // Cantidad de enteros del código
+    public int tamano() {
+        return codigo.length;
+    }
+
+    public int getCantidadRobots() {
+        return cantidadRobots;
+    }
+
+    // Listado de las instrucciones, una por línea con su posición
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder();
+        for (int pc = 0; pc < codigo.length; pc += TAMANO_INSTRUCCION) {
+            int operacion = codigo[pc];
+            texto.append(pc).append(": ");
+            if (operacion == FIN_REPETIR) {
+                texto.append("fin ").append(codigo[pc + 1]);
+            } else if (operacion == REPETIR) {
+                texto.append("repetir ").append(codigo[pc + 1]).append(' ').append(codigo[pc + 2]);
+            } else {
+                texto.append('r').append(codigo[pc + 1]).append(' ').append(MIEMBROS[operacion].getLexemaFijo());
+                if (operacion <= VELOCIDAD) {
+                    texto.append(' ').append(codigo[pc + 2]);
+                }
+            }
+            texto.append('\n');
+        }
+        return texto.toString();
+    }
+}
@@ -0,0 +1,82 @@
+package analizador.ejecucion;
+
+import java.util.Arrays;
+
+import analizador.sintactico.ArbolPrograma;
+import analizador.sintactico.TipoNodo;
+
+/**
+ * Traduce el árbol de un programa validado a Bytecode. Las declaraciones no
+ * generan código; se omiten las acciones de robots no declarados y los
+ * bloques repetir sin vueltas o cuyo cuerpo no genera código, así que el
+ * código solo contiene lo que se ejecuta.
+ */
+public class Compilador {
+    private final ArbolPrograma arbol;
+
+    private int[] codigo;
+    private int tamano;
+
+    public Compilador(ArbolPrograma arbol) {
+        this.arbol = arbol;
+    }
+
+    // Compila el árbol completo
+    public Bytecode compilar() {
+        codigo = new int[Math.max(arbol.tamano(), 4) * Bytecode.TAMANO_INSTRUCCION];
+        tamano = 0;
+
+        // Bloques abiertos: fin del subárbol y posición de su instrucción REPETIR
+        int[] finesBloque = new int[16];
+        int[] inicios = new int[16];
+        int profundidad = 0;
+
+        int nodo = 0;
+        while (true) {
+            while (profundidad > 0 && nodo == finesBloque[profundidad - 1]) {
+                int inicio = inicios[--profundidad];
+                if (tamano == inicio + Bytecode.TAMANO_INSTRUCCION) {
+                    // El cuerpo no generó código: se quita el bloque
+                    tamano = inicio;
+                    continue;
+                }
+                emitir(Bytecode.FIN_REPETIR, inicio + Bytecode.TAMANO_INSTRUCCION, 0);
+                codigo[inicio + 2] = tamano;
+            }
+            if (nodo >= arbol.tamano()) {
+                break;
+            }
+
+            TipoNodo tipo = arbol.getTipo(nodo);
+            if (tipo == TipoNodo.REPETIR) {
+                if (arbol.getValor(nodo) <= 0 || !arbol.tieneHijos(nodo)) {
+                    nodo = arbol.getFin(nodo);
+                    continue;
+                }
+                if (profundidad == finesBloque.length) {
+                    finesBloque = Arrays.copyOf(finesBloque, profundidad * 2);
+                    inicios = Arrays.copyOf(inicios, profundidad * 2);
+                }
+                finesBloque[profundidad] = arbol.getFin(nodo);
+                inicios[profundidad++] = tamano;
+                emitir(Bytecode.REPETIR, arbol.getValor(nodo), 0);
+            } else if (tipo != TipoNodo.DECLARACION_ROBOT && arbol.getRobot(nodo) >= 0) {
+                int operacion = Bytecode.codigoDe(arbol.getMiembro(nodo));
+                if (operacion >= 0) {
+                    emitir(operacion, arbol.getRobot(nodo), operacion <= Bytecode.VELOCIDAD ? arbol.getValor(nodo) : 0);
+                }
+            }
+            nodo++;
+        }
+        return new Bytecode(Arrays.copyOf(codigo, tamano), arbol.getCantidadRobots());
+    }
+
+    private void emitir(int operacion, int a, int b) {
+        if (tamano + Bytecode.TAMANO_INSTRUCCION > codigo.length) {
+            codigo = Arrays.copyOf(codigo, codigo.length * 2);
+        }
+        codigo[tamano++] = operacion;
+        codigo[tamano++] = a;
+        codigo[tamano++] = b;
+    }
+}
@@ -0,0 +1,34 @@
+package analizador.ejecucion;
+
+/**
+ * Modelo de tiempos del brazo, compartido por la simulación y las
+ * estimaciones. Los tiempos están en microsegundos. Una articulación gira a
+ * GRADOS_POR_SEGUNDO con velocidad 100 y proporcionalmente más lento con
+ * velocidades menores; la garra tarda siempre lo mismo en abrirse o cerrarse.
+ * Con el robot detenido los valores se configuran sin movimiento y no tardan.
+ */
+public final class ModeloMovimiento {
+    // Estado inicial de cada robot declarado
+    public static final int BASE_INICIAL = 0;
+    public static final int CUERPO_INICIAL = 0;
+    public static final int GARRA_INICIAL = 0;
+    public static final int VELOCIDAD_INICIAL = 50;
+
+    // Giro de una articulación con velocidad 100
+    public static final int GRADOS_POR_SEGUNDO = 200;
+
+    // Apertura o cierre de la garra
+    public static final long DURACION_GARRA = 500_000L;
+
+    // Tiempo de girar un grado con velocidad 1
+    static final long MICROS_POR_GRADO = 1_000_000L * 100 / GRADOS_POR_SEGUNDO;
+
+    private ModeloMovimiento() {
+    }
+
+    // Tiempo de girar una articulación los grados dados a la velocidad dada;
+    // las velocidades no positivas se tratan como 1
+    public static long duracionGiro(long grados, int velocidad) {
+        return Math.abs(grados) * MICROS_POR_GRADO / Math.max(velocidad, 1);
+    }
+}
@@ -0,0 +1,210 @@
+package analizador.ejecucion;
+
+import java.util.Arrays;
+
+/**
+ * Optimización de mirilla sobre el Bytecode. En una sola pasada quita, por
+ * robot:
+ *
+ * - escrituras muertas: un giro de una articulación que se sobrescribe antes
+ *   de que la garra actúe o el robot se inicie o detenga (así se funden los
+ *   giros consecutivos), y un cambio de velocidad que se sobrescribe antes de
+ *   cualquier giro;
+ * - repeticiones: acciones que dejan el estado como ya se sabía que estaba,
+ *   como abrir una garra abierta o volver a fijar el mismo valor.
+ *
+ * Solo se razona con lo que el propio programa estableció, nunca con el
+ * estado inicial del modelo. Todo lo sabido se olvida en cada REPETIR y
+ * FIN_REPETIR, así que ninguna eliminación cruza el límite de un bloque y
+ * cada vuelta se comporta igual que antes. El estado final de los robots y
+ * la posición de cada uno al usar la garra no cambian.
+ */
+public class Optimizador {
+    private final Bytecode programa;
+    private int escriturasMuertas;
+    private int repeticiones;
+
+    // Lo sabido de cada robot; una entrada solo vale si su época es la actual.
+    // Las articulaciones usan la posición robot * 3 + articulación
+    private int[] valores;
+    private int[] epocasValor;
+    private int[] pendientes;
+    private int[] epocasPendiente;
+    private int[] velocidades;
+    private int[] epocasVelocidad;
+    private int[] velocidadesPendientes;
+    private int[] epocasVelocidadPendiente;
+    private int[] garras;
+    private int[] epocasGarra;
+    private int[] marchas;
+    private int[] epocasMarcha;
+    private int epoca;
+
+    public Optimizador(Bytecode programa) {
+        this.programa = programa;
+    }
+
+    // Devuelve el programa optimizado; el original no se modifica
+    public Bytecode optimizar() {
+        int[] codigo = programa.getCodigo();
+        int cantidadRobots = programa.getCantidadRobots();
+        int instrucciones = codigo.length / Bytecode.TAMANO_INSTRUCCION;
+        boolean[] eliminadas = new boolean[instrucciones];
+        escriturasMuertas = 0;
+        repeticiones = 0;
+        inicializar(cantidadRobots);
+
+        for (int i = 0; i < instrucciones; i++) {
+            int pc = i * Bytecode.TAMANO_INSTRUCCION;
+            int operacion = codigo[pc];
+            int robot = codigo[pc + 1];
+            int valor = codigo[pc + 2];
+            switch (operacion) {
+                case Bytecode.BASE:
+                case Bytecode.CUERPO:
+                case Bytecode.GARRA: {
+                    int articulacion = robot * 3 + operacion;
+                    if (vigente(epocasValor, articulacion) && valores[articulacion] == valor) {
+                        eliminadas[i] = true;
+                        repeticiones++;
+                        break;
+                    }
+                    if (vigente(epocasPendiente, articulacion)) {
+                        eliminadas[pendientes[articulacion]] = true;
+                        escriturasMuertas++;
+                    }
+                    fijar(valores, epocasValor, articulacion, valor);
+                    fijar(pendientes, epocasPendiente, articulacion, i);
+                    // El giro usa la velocidad actual
+                    epocasVelocidadPendiente[robot] = -1;
+                    break;
+                }
+                case Bytecode.VELOCIDAD:
+                    if (vigente(epocasVelocidad, robot) && velocidades[robot] == valor) {
+                        eliminadas[i] = true;
+                        repeticiones++;
+                        break;
+                    }
+                    if (vigente(epocasVelocidadPendiente, robot)) {
+                        eliminadas[velocidadesPendientes[robot]] = true;
+                        escriturasMuertas++;
+                    }
+                    fijar(velocidades, epocasVelocidad, robot, valor);
+                    fijar(velocidadesPendientes, epocasVelocidadPendiente, robot, i);
+                    break;
+                case Bytecode.ABRIR_GARRA:
+                case Bytecode.CERRAR_GARRA:
+                    if (vigente(epocasGarra, robot) && garras[robot] == operacion) {
+                        eliminadas[i] = true;
+                        repeticiones++;
+                        break;
+                    }
+                    fijar(garras, epocasGarra, robot, operacion);
+                    confirmarGiros(robot);
+                    break;
+                case Bytecode.INICIAR:
+                case Bytecode.DETENER:
+                    if (vigente(epocasMarcha, robot) && marchas[robot] == operacion) {
+                        eliminadas[i] = true;
+                        repeticiones++;
+                        break;
+                    }
+                    fijar(marchas, epocasMarcha, robot, operacion);
+                    confirmarGiros(robot);
+                    break;
+                default:
+                    // Límite de un bloque repetir: se olvida todo lo sabido
+                    epoca++;
+                    break;
+            }
+        }
+        return reconstruir(codigo, eliminadas, cantidadRobots);
+    }
+
+    // Los giros pendientes del robot ya tuvieron efecto y no se pueden quitar
+    private void confirmarGiros(int robot) {
+        for (int articulacion = robot * 3; articulacion < robot * 3 + 3; articulacion++) {
+            epocasPendiente[articulacion] = -1;
+        }
+    }
+
+    private boolean vigente(int[] epocas, int posicion) {
+        return epocas[posicion] == epoca;
+    }
+
+    private void fijar(int[] datos, int[] epocas, int posicion, int dato) {
+        datos[posicion] = dato;
+        epocas[posicion] = epoca;
+    }
+
+    private void inicializar(int cantidadRobots) {
+        valores = new int[cantidadRobots * 3];
+        epocasValor = new int[cantidadRobots * 3];
+        pendientes = new int[cantidadRobots * 3];
+        epocasPendiente = new int[cantidadRobots * 3];
+        velocidades = new int[cantidadRobots];
+        epocasVelocidad = new int[cantidadRobots];
+        velocidadesPendientes = new int[cantidadRobots];
+        epocasVelocidadPendiente = new int[cantidadRobots];
+        garras = new int[cantidadRobots];
+        epocasGarra = new int[cantidadRobots];
+        marchas = new int[cantidadRobots];
+        epocasMarcha = new int[cantidadRobots];
+        for (int[] epocas : new int[][] { epocasValor, epocasPendiente, epocasVelocidad,
+                epocasVelocidadPendiente, epocasGarra, epocasMarcha }) {
+            Arrays.fill(epocas, -1);
+        }
+        epoca = 0;
+    }
+
+    // Copia las instrucciones que quedan y corrige los saltos de los bloques
+    private Bytecode reconstruir(int[] codigo, boolean[] eliminadas, int cantidadRobots) {
+        int instrucciones = eliminadas.length;
+        // Posición nueva de cada instrucción, o de la siguiente que quede
+        int[] posiciones = new int[instrucciones + 1];
+        int tamano = 0;
+        for (int i = 0; i < instrucciones; i++) {
+            posiciones[i] = tamano;
+            if (!eliminadas[i]) {
+                tamano += Bytecode.TAMANO_INSTRUCCION;
+            }
+        }
+        posiciones[instrucciones] = tamano;
+
+        int[] optimizado = new int[tamano];
+        int destino = 0;
+        for (int i = 0; i < instrucciones; i++) {
+            if (eliminadas[i]) {
+                continue;
+            }
+            int pc = i * Bytecode.TAMANO_INSTRUCCION;
+            int operacion = codigo[pc];
+            int a = codigo[pc + 1];
+            int b = codigo[pc + 2];
+            if (operacion == Bytecode.REPETIR) {
+                b = posiciones[b / Bytecode.TAMANO_INSTRUCCION];
+            } else if (operacion == Bytecode.FIN_REPETIR) {
+                a = posiciones[a / Bytecode.TAMANO_INSTRUCCION];
+            }
+            optimizado[destino++] = operacion;
+            optimizado[destino++] = a;
+            optimizado[destino++] = b;
+        }
+        return new Bytecode(optimizado, cantidadRobots);
+    }
+
+    // Comandos eliminados en la última optimización
+    public int getEliminados() {
+        return escriturasMuertas + repeticiones;
+    }
+
+    // Giros y cambios de velocidad sobrescritos antes de tener efecto
+    public int getEscriturasMuertas() {
+        return escriturasMuertas;
+    }
+
+    // Acciones que repetían un estado ya conocido
+    public int getRepeticiones() {
+        return repeticiones;
+    }
+}
@@ -0,0 +1,14 @@
+package analizador.ejecucion;
+
+import analizador.lexico.TipoToken;
+
+/**
+ * Destino de los comandos que emite la simulación, en orden de ejecución. Los
+ * datos llegan como primitivos para no crear un objeto por comando.
+ */
+public interface ReceptorComandos {
+
+    // tiempo: inicio del comando en microsegundos; robot: índice de declaración;
+    // miembro: propiedad o método ejecutado; valor: argumento (0 si no tiene)
+    void comando(long tiempo, int robot, TipoToken miembro, int valor);
+}
@@ -0,0 +1,310 @@
+package analizador.ejecucion;
+
+import java.util.Arrays;
+
+import analizador.lexico.TipoToken;
+
+/**
+ * Costo de una secuencia de acciones de un robot expresado en función del
+ * estado con el que empieza. Lo que la secuencia fija (valores, velocidad,
+ * marcha) se guarda como estado final; lo que depende del estado de entrada
+ * queda pendiente en unos pocos acumuladores: el tiempo de los giros hechos
+ * con la velocidad de entrada, costos que solo cuentan si el robot ya estaba
+ * en marcha y el primer movimiento de cada articulación y de la garra. Dos
+ * resúmenes se componen resolviendo los pendientes del segundo con el estado
+ * final del primero, así que un bloque repetir se resume sin desenrollarlo.
+ *
+ * Simulador redondea cada giro por separado, así que el tiempo de los giros
+ * con la velocidad de entrada no se puede sumar en grados: se guarda ya
+ * redondeado para cada velocidad que el robot puede tener al entrar, que son
+ * la inicial y las que fija el programa. Así el resultado es exacto y cada
+ * giro pendiente cuesta una suma por velocidad posible.
+ *
+ * Todas las sumas y productos se saturan en Long.MAX_VALUE.
+ */
+final class ResumenCosto {
+    // Valor de estado que la secuencia no fija y se toma de la entrada
+    static final long DESCONOCIDO = Long.MIN_VALUE;
+
+    private static final int BASE = 0;
+    private static final int CUERPO = 1;
+    private static final int GARRA = 2;
+
+    // Velocidades que puede tener el robot al entrar, ordenadas y ya ajustadas
+    // como en ModeloMovimiento.duracionGiro; compartidas por todos los resúmenes
+    private final int[] velocidades;
+
+    long comandos;
+    // Microsegundos que no dependen de la entrada
+    long fijo;
+    // Microsegundos que solo cuentan si el robot empieza en marcha
+    long siIniciado;
+    // Microsegundos de los giros hechos con la velocidad de entrada estando en
+    // marcha, por cada posible velocidad de entrada (null si no hay)
+    long[] microsVelocidadEntrada;
+    // Igual, para los giros que solo cuentan si el robot empieza en marcha
+    long[] microsSiIniciado;
+
+    // Primer giro de cada articulación: destino, velocidad y marcha con que se
+    // hizo (DESCONOCIDO si son las de entrada); sin giro el destino es DESCONOCIDO
+    final long[] primerDestino = { DESCONOCIDO, DESCONOCIDO, DESCONOCIDO };
+    final long[] primerVelocidad = new long[3];
+    final long[] primerIniciado = new long[3];
+    // Primera acción de la garra (1 abrir, 0 cerrar) y la marcha en ese momento
+    long primeraGarra = DESCONOCIDO;
+    long primeraGarraIniciado;
+
+    // Estado al terminar la secuencia; DESCONOCIDO si es el de entrada
+    final long[] finArticulacion = { DESCONOCIDO, DESCONOCIDO, DESCONOCIDO };
+    long finVelocidad = DESCONOCIDO;
+    long finGarraAbierta = DESCONOCIDO;
+    long finIniciado = DESCONOCIDO;
+
+    // Resumen vacío: no ejecuta nada y deja el estado como estaba
+    ResumenCosto(int[] velocidades) {
+        this.velocidades = velocidades;
+    }
+
+    // Velocidades posibles de un programa: la inicial y las que fija alguna
+    // instrucción VELOCIDAD, ajustadas como en ModeloMovimiento.duracionGiro
+    static int[] velocidadesPosibles(int[] codigo) {
+        int[] velocidades = new int[8];
+        int cantidad = 0;
+        velocidades[cantidad++] = Math.max(ModeloMovimiento.VELOCIDAD_INICIAL, 1);
+        for (int pc = 0; pc < codigo.length; pc += Bytecode.TAMANO_INSTRUCCION) {
+            if (codigo[pc] == Bytecode.VELOCIDAD) {
+                if (cantidad == velocidades.length) {
+                    velocidades = Arrays.copyOf(velocidades, cantidad * 2);
+                }
+                velocidades[cantidad++] = Math.max(codigo[pc + 2], 1);
+            }
+        }
+        Arrays.sort(velocidades, 0, cantidad);
+        int distintas = 0;
+        for (int i = 0; i < cantidad; i++) {
+            if (distintas == 0 || velocidades[distintas - 1] != velocidades[i]) {
+                velocidades[distintas++] = velocidades[i];
+            }
+        }
+        return Arrays.copyOf(velocidades, distintas);
+    }
+
+    // Resumen sin costo que fija el estado inicial de la simulación
+    static ResumenCosto estadoInicial(int[] velocidades) {
+        ResumenCosto inicial = new ResumenCosto(velocidades);
+        inicial.finArticulacion[BASE] = ModeloMovimiento.BASE_INICIAL;
+        inicial.finArticulacion[CUERPO] = ModeloMovimiento.CUERPO_INICIAL;
+        inicial.finArticulacion[GARRA] = ModeloMovimiento.GARRA_INICIAL;
+        inicial.finVelocidad = ModeloMovimiento.VELOCIDAD_INICIAL;
+        inicial.finGarraAbierta = 0;
+        inicial.finIniciado = 0;
+        return inicial;
+    }
+
+    // Resumen sin costo que deja el mismo estado final que otro
+    static ResumenCosto estadoFinal(ResumenCosto otro) {
+        ResumenCosto estado = new ResumenCosto(otro.velocidades);
+        System.arraycopy(otro.finArticulacion, 0, estado.finArticulacion, 0, 3);
+        estado.finVelocidad = otro.finVelocidad;
+        estado.finGarraAbierta = otro.finGarraAbierta;
+        estado.finIniciado = otro.finIniciado;
+        return estado;
+    }
+
+    // Agrega una acción al final de la secuencia
+    void agregarAccion(TipoToken miembro, int valor) {
+        switch (miembro) {
+            case BASE:
+                girar(BASE, valor, finVelocidad, finIniciado);
+                break;
+            case CUERPO:
+                girar(CUERPO, valor, finVelocidad, finIniciado);
+                break;
+            case GARRA:
+                girar(GARRA, valor, finVelocidad, finIniciado);
+                break;
+            case VELOCIDAD:
+                finVelocidad = valor;
+                break;
+            case ABRIR_GARRA:
+                moverGarra(1, finIniciado);
+                break;
+            case CERRAR_GARRA:
+                moverGarra(0, finIniciado);
+                break;
+            case INICIAR:
+                finIniciado = 1;
+                break;
+            case DETENER:
+                finIniciado = 0;
+                break;
+            default:
+                return;
+        }
+        comandos = sumar(comandos, 1);
+    }
+
+    // Agrega al final de la secuencia otra secuencia resumida
+    void componer(ResumenCosto otro) {
+        comandos = sumar(comandos, otro.comandos);
+        fijo = sumar(fijo, otro.fijo);
+        agregarCosto(otro.siIniciado, finIniciado);
+        agregarPendientes(otro.microsVelocidadEntrada, finVelocidad, 1);
+        agregarPendientes(otro.microsSiIniciado, finVelocidad, finIniciado);
+        for (int articulacion = 0; articulacion < 3; articulacion++) {
+            if (otro.primerDestino[articulacion] != DESCONOCIDO) {
+                girar(articulacion, otro.primerDestino[articulacion],
+                        resolver(otro.primerVelocidad[articulacion], finVelocidad),
+                        resolver(otro.primerIniciado[articulacion], finIniciado));
+            }
+        }
+        if (otro.primeraGarra != DESCONOCIDO) {
+            moverGarra(otro.primeraGarra, resolver(otro.primeraGarraIniciado, finIniciado));
+        }
+
+        for (int articulacion = 0; articulacion < 3; articulacion++) {
+            finArticulacion[articulacion] = resolver(otro.finArticulacion[articulacion],
+                    finArticulacion[articulacion]);
+        }
+        finVelocidad = resolver(otro.finVelocidad, finVelocidad);
+        finGarraAbierta = resolver(otro.finGarraAbierta, finGarraAbierta);
+        finIniciado = resolver(otro.finIniciado, finIniciado);
+    }
+
+    // Resumen de repetir esta secuencia las veces dadas. La primera vuelta
+    // parte del estado de entrada y todas las demás del estado final de la
+    // secuencia, que repetirla no cambia; por eso basta resumir la segunda
+    // vuelta y multiplicarla
+    ResumenCosto repetir(long vueltas) {
+        ResumenCosto resultado = new ResumenCosto(velocidades);
+        if (vueltas <= 0) {
+            return resultado;
+        }
+        resultado.componer(this);
+        if (vueltas > 1) {
+            // Tras una vuelta toda articulación que se gira ya tiene valor
+            // conocido, así que la segunda vuelta no deja giros pendientes
+            ResumenCosto siguiente = estadoFinal(this);
+            siguiente.componer(this);
+            long veces = vueltas - 1;
+            siguiente.comandos = multiplicar(siguiente.comandos, veces);
+            siguiente.fijo = multiplicar(siguiente.fijo, veces);
+            siguiente.siIniciado = multiplicar(siguiente.siIniciado, veces);
+            multiplicar(siguiente.microsVelocidadEntrada, veces);
+            multiplicar(siguiente.microsSiIniciado, veces);
+            resultado.componer(siguiente);
+        }
+        return resultado;
+    }
+
+    // Giro de una articulación con la velocidad y la marcha dadas
+    private void girar(int articulacion, long destino, long velocidad, long iniciado) {
+        long anterior = finArticulacion[articulacion];
+        if (anterior != DESCONOCIDO) {
+            agregarGrados(Math.abs(destino - anterior), velocidad, iniciado);
+        } else if (primerDestino[articulacion] == DESCONOCIDO) {
+            primerDestino[articulacion] = destino;
+            primerVelocidad[articulacion] = velocidad;
+            primerIniciado[articulacion] = iniciado;
+        }
+        finArticulacion[articulacion] = destino;
+    }
+
+    // Acción de la garra (1 abrir, 0 cerrar); solo tarda si cambia su estado
+    private void moverGarra(long abrir, long iniciado) {
+        if (finGarraAbierta != DESCONOCIDO) {
+            if (finGarraAbierta != abrir) {
+                agregarCosto(ModeloMovimiento.DURACION_GARRA, iniciado);
+            }
+        } else if (primeraGarra == DESCONOCIDO) {
+            primeraGarra = abrir;
+            primeraGarraIniciado = iniciado;
+        }
+        finGarraAbierta = abrir;
+    }
+
+    // Suma un giro según lo que se sepa de la velocidad y la marcha
+    private void agregarGrados(long grados, long velocidad, long iniciado) {
+        if (grados == 0 || iniciado == 0) {
+            return;
+        }
+        if (velocidad != DESCONOCIDO) {
+            agregarCosto(duracion(grados, velocidad), iniciado);
+            return;
+        }
+        long[] micros = pendientes(iniciado);
+        for (int i = 0; i < velocidades.length; i++) {
+            micros[i] = sumar(micros[i], duracion(grados, velocidades[i]));
+        }
+    }
+
+    // Suma los giros pendientes de otro resumen, hechos con la velocidad dada
+    private void agregarPendientes(long[] otros, long velocidad, long iniciado) {
+        if (otros == null || iniciado == 0) {
+            return;
+        }
+        if (velocidad != DESCONOCIDO) {
+            int i = Arrays.binarySearch(velocidades, (int) Math.max(velocidad, 1));
+            agregarCosto(otros[i], iniciado);
+            return;
+        }
+        long[] micros = pendientes(iniciado);
+        for (int i = 0; i < velocidades.length; i++) {
+            micros[i] = sumar(micros[i], otros[i]);
+        }
+    }
+
+    // Acumulador de giros con la velocidad de entrada para la marcha dada
+    private long[] pendientes(long iniciado) {
+        if (iniciado == 1) {
+            if (microsVelocidadEntrada == null) {
+                microsVelocidadEntrada = new long[velocidades.length];
+            }
+            return microsVelocidadEntrada;
+        }
+        if (microsSiIniciado == null) {
+            microsSiIniciado = new long[velocidades.length];
+        }
+        return microsSiIniciado;
+    }
+
+    // Suma microsegundos según lo que se sepa de la marcha
+    private void agregarCosto(long micros, long iniciado) {
+        if (iniciado == 1) {
+            fijo = sumar(fijo, micros);
+        } else if (iniciado == DESCONOCIDO) {
+            siIniciado = sumar(siIniciado, micros);
+        }
+    }
+
+    private static long resolver(long valor, long entrada) {
+        return valor != DESCONOCIDO ? valor : entrada;
+    }
+
+    // Tiempo de girar los grados dados, como ModeloMovimiento.duracionGiro
+    static long duracion(long grados, long velocidad) {
+        long total = multiplicar(grados, ModeloMovimiento.MICROS_POR_GRADO);
+        return total == Long.MAX_VALUE ? total : total / Math.max(velocidad, 1);
+    }
+
+    // Suma de valores no negativos saturada en Long.MAX_VALUE
+    static long sumar(long a, long b) {
+        long suma = a + b;
+        return suma < 0 ? Long.MAX_VALUE : suma;
+    }
+
+    // Producto de valores no negativos saturado en Long.MAX_VALUE
+    static long multiplicar(long a, long b) {
+        long producto = a * b;
+        return Math.multiplyHigh(a, b) != 0 || producto < 0 ? Long.MAX_VALUE : producto;
+    }
+
+    // Multiplica cada valor del arreglo (si lo hay) por b
+    private static void multiplicar(long[] valores, long b) {
+        if (valores != null) {
+            for (int i = 0; i < valores.length; i++) {
+                valores[i] = multiplicar(valores[i], b);
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package analizador.ejecucion;
+
+import java.util.Arrays;
+
+import analizador.sintactico.ArbolPrograma;
+
+/**
+ * Ejecuta un programa compilado sobre el estado de sus robots y emite los
+ * comandos resultantes con su tiempo de inicio. El Bytecode se recorre con un
+ * contador de programa y una pila con las vueltas pendientes de cada bloque
+ * repetir abierto, así que la profundidad de anidamiento no consume pila de
+ * Java. El reloj es único: los comandos se ejecutan uno tras otro en el orden
+ * del programa y cada uno avanza el reloj lo que indique ModeloMovimiento.
+ *
+ * Está pensado para programas sin errores; los valores fuera de rango se
+ * aplican tal cual.
+ */
+public class Simulador {
+    private final Bytecode programa;
+    private ReceptorComandos receptor;
+    private long limiteComandos;
+
+    // Estado de cada robot indexado por su orden de declaración
+    private int[] bases;
+    private int[] cuerpos;
+    private int[] garras;
+    private int[] velocidades;
+    private boolean[] garrasAbiertas;
+    private boolean[] iniciados;
+
+    // Vueltas pendientes de cada bloque repetir abierto
+    private int[] vueltasRestantes;
+
+    private long tiempo;
+    private long comandos;
+    private boolean limiteAlcanzado;
+
+    public Simulador(Bytecode programa) {
+        this.programa = programa;
+        this.limiteComandos = Long.MAX_VALUE;
+        this.vueltasRestantes = new int[16];
+        reiniciar();
+    }
+
+    // Compila el árbol antes de simularlo
+    public Simulador(ArbolPrograma arbol) {
+        this(new Compilador(arbol).compilar());
+    }
+
+    // Receptor de los comandos ejecutados; null para solo actualizar el estado
+    public void setReceptor(ReceptorComandos receptor) {
+        this.receptor = receptor;
+    }
+
+    // Máximo de comandos a ejecutar; la simulación se detiene al alcanzarlo
+    public void setLimiteComandos(long limiteComandos) {
+        this.limiteComandos = limiteComandos;
+    }
+
+    // Devuelve todos los robots a su estado inicial y el reloj a cero
+    public void reiniciar() {
+        int cantidad = programa.getCantidadRobots();
+        bases = new int[cantidad];
+        cuerpos = new int[cantidad];
+        garras = new int[cantidad];
+        velocidades = new int[cantidad];
+        garrasAbiertas = new boolean[cantidad];
+        iniciados = new boolean[cantidad];
+        Arrays.fill(bases, ModeloMovimiento.BASE_INICIAL);
+        Arrays.fill(cuerpos, ModeloMovimiento.CUERPO_INICIAL);
+        Arrays.fill(garras, ModeloMovimiento.GARRA_INICIAL);
+        Arrays.fill(velocidades, ModeloMovimiento.VELOCIDAD_INICIAL);
+        tiempo = 0;
+        comandos = 0;
+        limiteAlcanzado = false;
+    }
+
+    // Ejecuta el programa desde el estado inicial y devuelve la cantidad de
+    // comandos ejecutados
+    public long ejecutar() {
+        reiniciar();
+        int[] codigo = programa.getCodigo();
+        int profundidad = 0;
+        int pc = 0;
+        while (pc < codigo.length) {
+            int operacion = codigo[pc];
+            if (operacion == Bytecode.REPETIR) {
+                if (profundidad == vueltasRestantes.length) {
+                    vueltasRestantes = Arrays.copyOf(vueltasRestantes, profundidad * 2);
+                }
+                vueltasRestantes[profundidad++] = codigo[pc + 1];
+            } else if (operacion == Bytecode.FIN_REPETIR) {
+                if (--vueltasRestantes[profundidad - 1] > 0) {
+                    pc = codigo[pc + 1];
+                    continue;
+                }
+                profundidad--;
+            } else {
+                if (comandos == limiteComandos) {
+                    limiteAlcanzado = true;
+                    break;
+                }
+                ejecutarAccion(operacion, codigo[pc + 1], codigo[pc + 2]);
+            }
+            pc += Bytecode.TAMANO_INSTRUCCION;
+        }
+        return comandos;
+    }
+
+    // Aplica una acción al estado del robot, la emite y avanza el reloj
+    private void ejecutarAccion(int operacion, int robot, int valor) {
+        long duracion = 0;
+        boolean enMarcha = iniciados[robot];
+        switch (operacion) {
+            case Bytecode.BASE:
+                if (enMarcha) {
+                    duracion = ModeloMovimiento.duracionGiro((long) valor - bases[robot], velocidades[robot]);
+                }
+                bases[robot] = valor;
+                break;
+            case Bytecode.CUERPO:
+                if (enMarcha) {
+                    duracion = ModeloMovimiento.duracionGiro((long) valor - cuerpos[robot], velocidades[robot]);
+                }
+                cuerpos[robot] = valor;
+                break;
+            case Bytecode.GARRA:
+                if (enMarcha) {
+                    duracion = ModeloMovimiento.duracionGiro((long) valor - garras[robot], velocidades[robot]);
+                }
+                garras[robot] = valor;
+                break;
+            case Bytecode.VELOCIDAD:
+                velocidades[robot] = valor;
+                break;
+            case Bytecode.ABRIR_GARRA:
+            case Bytecode.CERRAR_GARRA:
+                boolean abrir = operacion == Bytecode.ABRIR_GARRA;
+                if (enMarcha && garrasAbiertas[robot] != abrir) {
+                    duracion = ModeloMovimiento.DURACION_GARRA;
+                }
+                garrasAbiertas[robot] = abrir;
+                break;
+            case Bytecode.INICIAR:
+                iniciados[robot] = true;
+                break;
+            case Bytecode.DETENER:
+                iniciados[robot] = false;
+                break;
+            default:
+                return;
+        }
+        if (receptor != null) {
+            receptor.comando(tiempo, robot, Bytecode.miembroDe(operacion), valor);
+        }
+        tiempo += duracion;
+        comandos++;
+    }
+
+    // Tiempo transcurrido al terminar el último comando, en microsegundos
+    public long getTiempo() {
+        return tiempo;
+    }
+
+    // Cantidad de comandos ejecutados en la última simulación
+    public long getComandos() {
+        return comandos;
+    }
+
+    // Indica si la última simulación se detuvo por el límite de comandos
+    public boolean isLimiteAlcanzado() {
+        return limiteAlcanzado;
+    }
+
+    public int getCantidadRobots() {
+        return bases.length;
+    }
+
+    public int getBase(int robot) {
+        return bases[robot];
+    }
+
+    public int getCuerpo(int robot) {
+        return cuerpos[robot];
+    }
+
+    public int getGarra(int robot) {
+        return garras[robot];
+    }
+
+    public int getVelocidad(int robot) {
+        return velocidades[robot];
+    }
+
+    public boolean isGarraAbierta(int robot) {
+        return garrasAbiertas[robot];
+    }
+
+    public boolean isIniciado(int robot) {
+        return iniciados[robot];
+    }
+}
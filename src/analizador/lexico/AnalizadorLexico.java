@@ -2,89 +2,197 @@ package analizador.lexico;
 
 import java.io.IOException;
 import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+
+import analizador.diagnostico.CodigoDiagnostico;
+import analizador.diagnostico.DiagnosticSink;
+import analizador.diagnostico.TipoDiagnostico;
 
 /**
  * Analizador léxico manual para el lenguaje de robots
  */
 public class AnalizadorLexico {
+    // Tamaño de la ventana de caracteres leída de la entrada en cada recarga
+    private static final int TAMANO_BUFFER = 8192;
+
     private Reader entrada;
+    private ByteBuffer mapa;
+    private CharsetDecoder decodificador;
+    private char[] buffer;
+    private int posicion;
+    private int limite;
+    // Desplazamiento en la entrada del primer carácter de la ventana
+    private int inicioVentana;
+    private boolean entradaAgotada;
+    private ClasificadorTokens clasificador;
     private StringBuilder lexema;
     private int caracterActual;
     private boolean fin;
     private int linea;
     private int columna;
     private List<Token> tokens;
-    private static final Map<String, TipoToken> palabrasReservadas;
-    private boolean despuesDePunto;
+    private boolean retenerTokens;
 
-    // Inicialización de palabras reservadas
-    static {
-        palabrasReservadas = new HashMap<>();
-        palabrasReservadas.put("Robot", TipoToken.ROBOT);
+    public AnalizadorLexico(Reader entrada) {
+        this.entrada = entrada;
+        inicializar();
     }
 
-    // Inicialización de propiedades y métodos del robot
-    private static final Map<String, TipoToken> metodosRobot;
-    static {
-        metodosRobot = new HashMap<>();
-        metodosRobot.put("iniciar", TipoToken.INICIAR);
-        metodosRobot.put("detener", TipoToken.DETENER);
-        metodosRobot.put("base", TipoToken.BASE);
-        metodosRobot.put("cuerpo", TipoToken.CUERPO);
-        metodosRobot.put("garra", TipoToken.GARRA);
-        metodosRobot.put("velocidad", TipoToken.VELOCIDAD);
-        metodosRobot.put("abrirGarra", TipoToken.ABRIR_GARRA);
-        metodosRobot.put("cerrarGarra", TipoToken.CERRAR_GARRA);
-        metodosRobot.put("repetir", TipoToken.REPETIR);
+    /**
+     * Crea un analizador que lee directamente del archivo proyectado en memoria
+     * (solo lectura), sin cargar el programa completo en el heap. La entrada se
+     * interpreta como UTF-8, con una ruta rápida para el texto ASCII.
+     */
+    public AnalizadorLexico(Path archivo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            long tamano = canal.size();
+            if (tamano > Integer.MAX_VALUE) {
+                throw new IOException("Archivo demasiado grande para proyectarse en memoria: " + archivo);
+            }
+            this.mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamano);
+        }
+        this.decodificador = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        inicializar();
     }
 
-    public AnalizadorLexico(Reader entrada) {
+    // Analizador para un trozo de una entrada mayor, que puede empezar con un
+    // punto pendiente del trozo anterior (ver AnalizadorLexicoParalelo)
+    AnalizadorLexico(Reader entrada, boolean despuesDePunto) {
         this.entrada = entrada;
-        this.lexema = new StringBuilder();
+        inicializar();
+        clasificador.setDespuesDePunto(despuesDePunto);
+    }
+
+    // Estado inicial común a todas las fuentes de entrada
+    private void inicializar() {
+        this.buffer = new char[TAMANO_BUFFER];
+        this.posicion = 0;
+        this.limite = 0;
+        this.inicioVentana = 0;
+        this.entradaAgotada = false;
+        this.clasificador = new ClasificadorTokens();
+        this.lexema = clasificador.getLexema();
         this.fin = false;
         this.linea = 1;
         this.columna = 0;
         this.tokens = new ArrayList<>();
-        this.despuesDePunto = false;
+        this.retenerTokens = true;
         avanzar();
     }
 
-    // Avanza al siguiente carácter en la entrada
-    private void avanzar() {
+    // Rellena la ventana de caracteres desde la entrada; devuelve false al agotarla
+    private boolean llenarBuffer() {
+        if (entradaAgotada) {
+            return false;
+        }
+
+        if (mapa != null) {
+            return llenarDesdeMapa();
+        }
+
         try {
-            caracterActual = entrada.read();
-            if (caracterActual != -1) {
-                columna++;
-                if (caracterActual == '\n') {
-                    linea++;
-                    columna = 0;
-                }
+            int leidos;
+            do {
+                leidos = entrada.read(buffer, 0, buffer.length);
+            } while (leidos == 0);
+
+            if (leidos == -1) {
+                entradaAgotada = true;
+                return false;
             }
+
+            inicioVentana += limite;
+            posicion = 0;
+            limite = leidos;
+            return true;
         } catch (IOException e) {
-            error("Error de lectura: " + e.getMessage());
+            error(CodigoDiagnostico.ERROR_LECTURA, e.getMessage());
+            entradaAgotada = true;
+            return false;
+        }
+    }
+
+    // Rellena la ventana desde el archivo proyectado: los bytes ASCII se copian
+    // directamente y solo se recurre al decodificador UTF-8 ante bytes no ASCII
+    private boolean llenarDesdeMapa() {
+        int disponibles = mapa.remaining();
+        if (disponibles == 0) {
+            entradaAgotada = true;
+            return false;
+        }
+
+        int inicio = mapa.position();
+        int maximo = Math.min(buffer.length, disponibles);
+        int leidos = 0;
+        while (leidos < maximo) {
+            byte b = mapa.get(inicio + leidos);
+            if (b < 0) {
+                break;
+            }
+            buffer[leidos++] = (char) b;
+        }
+        mapa.position(inicio + leidos);
+
+        if (leidos == 0) {
+            CharBuffer destino = CharBuffer.wrap(buffer);
+            decodificador.decode(mapa, destino, true);
+            leidos = destino.position();
+        }
+
+        inicioVentana += limite;
+        posicion = 0;
+        limite = leidos;
+        return leidos > 0;
+    }
+
+    // Avanza al siguiente carácter en la entrada
+    private void avanzar() {
+        if (posicion >= limite && !llenarBuffer()) {
             caracterActual = -1;
+            fin = true;
+            return;
         }
 
-        fin = (caracterActual == -1);
+        caracterActual = buffer[posicion++];
+        columna++;
+        if (caracterActual == '\n') {
+            linea++;
+            columna = 0;
+        }
     }
 
-    // Registra un error léxico
-    private void error(String mensaje) {
-        System.err.println("Error léxico en línea " + linea + ", columna " + columna + ": " + mensaje);
+    // Desplazamiento del carácter actual en la entrada, o su longitud al final.
+    // Si verSiguiente() recargó la ventana, el carácter actual es el último de
+    // la anterior y posicion vale 0, así que la cuenta sigue siendo correcta
+    private int desplazamiento() {
+        return inicioVentana + posicion - (fin ? 0 : 1);
     }
 
-    // Agrega un token a la lista
-    private void agregarToken(String lexema, TipoToken tipo, int linea, int columna) {
-        tokens.add(new Token(lexema, tipo, linea, columna));
+    // Consulta el carácter siguiente al actual sin consumirlo (-1 al final)
+    private int verSiguiente() {
+        if (posicion >= limite && !llenarBuffer()) {
+            return -1;
+        }
+        return buffer[posicion];
     }
 
-    // Agrega un token a la lista con valor
-    private void agregarToken(String lexema, TipoToken tipo, int linea, int columna, Object valor) {
-        tokens.add(new Token(lexema, tipo, linea, columna, valor));
+    // Registra un error léxico
+    private void error(CodigoDiagnostico codigo, String argumento) {
+        DiagnosticSink diagnosticos = clasificador.getDiagnosticos();
+        if (diagnosticos != null) {
+            diagnosticos.reportar(TipoDiagnostico.LEXICO, codigo, linea, columna, argumento);
+        }
     }
 
     // Verifica si ya se llegó al final de la entrada
@@ -92,169 +200,133 @@ public class AnalizadorLexico {
         return fin;
     }
 
+    // Línea del carácter actual; al terminar, 1 + la cantidad de saltos de línea leídos
+    int getLineaActual() {
+        return linea;
+    }
+
     // Obtiene todos los tokens generados
     public List<Token> getTokens() {
         return tokens;
     }
 
-    // Obtiene el siguiente token
-    public Token siguienteToken() {
-        // Saltar espacios en blanco
-        while (!fin && Character.isWhitespace(caracterActual)) {
-            avanzar();
-        }
-
-        if (fin) {
-            Token token = new Token("EOF", TipoToken.EOF, linea, columna);
-            tokens.add(token);
-            return token;
-        }
+    // Destino de los errores léxicos; por omisión ninguno, como en
+    // AnalizadorSintactico. Los errores siguen en los tokens ERROR, pero un error
+    // de lectura solo llega aquí; para verlos en consola, un ConsolaDiagnosticos
+    public void setDiagnosticos(DiagnosticSink diagnosticos) {
+        clasificador.setDiagnosticos(diagnosticos);
+    }
 
-        // Reiniciar el lexema
-        lexema.setLength(0);
+    public DiagnosticSink getDiagnosticos() {
+        return clasificador.getDiagnosticos();
+    }
 
-        // Posición inicial del token
-        int inicioLinea = linea;
-        int inicioColumna = columna;
+    // Identificadores registrados en este análisis
+    public PoolSimbolos getPoolSimbolos() {
+        return clasificador.getPoolSimbolos();
+    }
 
-        // Identificadores y palabras reservadas
-        if (Character.isLetter(caracterActual)) {
-            return identificadorOPalabraReservada(inicioLinea, inicioColumna);
+    // Indica si siguienteToken() conserva los tokens en la lista interna. Los
+    // consumidores de una sola pasada pueden desactivarlo para que la memoria
+    // del analizador no crezca con el tamaño del programa; en ese modo
+    // getTokens() y analizar() devuelven una lista vacía.
+    public void setRetenerTokens(boolean retenerTokens) {
+        this.retenerTokens = retenerTokens;
+        if (!retenerTokens) {
+            tokens.clear();
         }
+    }
 
-        // Números
-        if (Character.isDigit(caracterActual)) {
-            return numero(inicioLinea, inicioColumna);
-        }
+    public boolean isRetenerTokens() {
+        return retenerTokens;
+    }
 
-        // Comentarios
-        if (caracterActual == '/' && siguienteEs('/')) {
-            return manejarComentario(inicioLinea, inicioColumna);
+    // Obtiene el siguiente token
+    public Token siguienteToken() {
+        escanear();
+        Token token = clasificador.crearToken();
+        if (retenerTokens) {
+            tokens.add(token);
         }
+        return token;
+    }
 
-        // Símbolos especiales y operadores
-        switch (caracterActual) {
-            case '.':
-                lexema.append((char) caracterActual);
-                avanzar();
-                despuesDePunto = true;
-                Token token = new Token(lexema.toString(), TipoToken.PUNTO, inicioLinea, inicioColumna);
-                tokens.add(token);
-                return token;
-
-            case '=':
-                lexema.append((char) caracterActual);
-                avanzar();
-                token = new Token(lexema.toString(), TipoToken.IGUAL, inicioLinea, inicioColumna);
-                tokens.add(token);
-                return token;
-
-            case '(':
-                lexema.append((char) caracterActual);
+    // Reconoce el siguiente token y deja sus datos en el clasificador
+    private TipoToken escanear() {
+        // Saltar espacios en blanco y comentarios en un único ciclo; los
+        // comentarios no generan tokens
+        while (true) {
+            while (!fin && ClaseCaracter.esEspacio(caracterActual)) {
+                saltarEspaciosEnVentana();
                 avanzar();
-                token = new Token(lexema.toString(), TipoToken.PARENTESIS_A, inicioLinea, inicioColumna);
-                tokens.add(token);
-                return token;
+            }
 
-            case ')':
-                lexema.append((char) caracterActual);
-                avanzar();
-                token = new Token(lexema.toString(), TipoToken.PARENTESIS_C, inicioLinea, inicioColumna);
-                tokens.add(token);
-                return token;
+            if (caracterActual == '/' && siguienteEs('/')) {
+                saltarComentario();
+            } else {
+                break;
+            }
+        }
 
-            case '{':
-                lexema.append((char) caracterActual);
-                avanzar();
-                token = new Token(lexema.toString(), TipoToken.LLAVE_A, inicioLinea, inicioColumna);
-                tokens.add(token);
-                return token;
+        clasificador.iniciar(desplazamiento(), linea, columna);
+        if (fin) {
+            return clasificador.fin();
+        }
 
-            case '}':
-                lexema.append((char) caracterActual);
-                avanzar();
-                token = new Token(lexema.toString(), TipoToken.LLAVE_C, inicioLinea, inicioColumna);
-                tokens.add(token);
-                return token;
+        // Identificadores y palabras reservadas
+        if (ClaseCaracter.esLetra(caracterActual)) {
+            consumirPalabra();
+            return clasificador.identificador(linea, columna);
+        }
 
-            case ',':
-                lexema.append((char) caracterActual);
-                avanzar();
-                token = new Token(lexema.toString(), TipoToken.COMA, inicioLinea, inicioColumna);
-                tokens.add(token);
-                return token;
+        // Números
+        if (ClaseCaracter.esDigito(caracterActual)) {
+            consumirNumero();
+            return clasificador.numero(linea, columna);
+        }
 
-            case ';':
-                lexema.append((char) caracterActual);
-                avanzar();
-                token = new Token(lexema.toString(), TipoToken.PUNTO_COMA, inicioLinea, inicioColumna);
-                tokens.add(token);
-                return token;
+        // Símbolos especiales, operadores y caracteres no reconocidos
+        lexema.append((char) caracterActual);
+        avanzar();
+        return clasificador.simbolo(linea, columna);
+    }
 
-            default:
-                // Carácter no reconocido
-                lexema.append((char) caracterActual);
-                avanzar();
-                String mensaje = "Símbolo no reconocido: " + lexema.toString();
-                error(mensaje);
-                token = new Token(lexema.toString(), TipoToken.ERROR, inicioLinea, inicioColumna, mensaje);
-                tokens.add(token);
-                return token;
+    // Descarta los espacios que siguen al carácter actual dentro de la ventana,
+    // sin cruzar saltos de línea
+    private void saltarEspaciosEnVentana() {
+        int i = posicion;
+        while (i < limite && ClaseCaracter.esEspacioEnLinea(buffer[i])) {
+            i++;
         }
+        columna += i - posicion;
+        posicion = i;
     }
 
     // Verifica si el siguiente carácter es el esperado sin consumirlo
     private boolean siguienteEs(char esperado) {
-        try {
-            entrada.mark(1);
-            int siguiente = entrada.read();
-            entrada.reset();
-            return siguiente == esperado;
-        } catch (IOException e) {
-            return false;
-        }
+        return verSiguiente() == esperado;
     }
 
-    // Maneja identificadores o palabras reservadas
-    private Token identificadorOPalabraReservada(int inicioLinea, int inicioColumna) {
-        // Consumir letras, dígitos y guiones bajos
-        while (!fin && (Character.isLetterOrDigit(caracterActual) || caracterActual == '_')) {
+    // Consume las letras, dígitos y guiones bajos de una palabra; los tramos
+    // ASCII se copian de la ventana de una vez
+    private void consumirPalabra() {
+        do {
             lexema.append((char) caracterActual);
-            avanzar();
-        }
-
-        String texto = lexema.toString();
-
-        // Verificar si es una palabra reservada o un identificador
-        if (despuesDePunto) {
-            despuesDePunto = false;
-            TipoToken tipo = metodosRobot.getOrDefault(texto, TipoToken.ERROR);
-
-            if (tipo == TipoToken.ERROR) {
-                String mensaje = "Método o propiedad desconocida: " + texto;
-                error(mensaje);
-                Token token = new Token(texto, tipo, inicioLinea, inicioColumna, mensaje);
-                tokens.add(token);
-                return token;
-            } else {
-                Token token = new Token(texto, tipo, inicioLinea, inicioColumna);
-                tokens.add(token);
-                return token;
+            int i = posicion;
+            while (i < limite && ClaseCaracter.esContinuacionIdentificadorAscii(buffer[i])) {
+                i++;
             }
-        } else {
-            TipoToken tipo = palabrasReservadas.getOrDefault(texto, TipoToken.IDENTIFICADOR);
-            Token token = new Token(texto, tipo, inicioLinea, inicioColumna);
-            tokens.add(token);
-            return token;
-        }
+            lexema.append(buffer, posicion, i - posicion);
+            columna += i - posicion;
+            posicion = i;
+            avanzar();
+        } while (!fin && ClaseCaracter.esContinuacionIdentificador(caracterActual));
     }
 
-    // Maneja números (enteros y flotantes)
-    private Token numero(int inicioLinea, int inicioColumna) {
+    // Consume los dígitos de un número y a lo sumo un punto decimal
+    private void consumirNumero() {
         boolean esFlotante = false;
-
-        // Consumir dígitos y posible punto decimal
-        while (!fin && (Character.isDigit(caracterActual) || caracterActual == '.')) {
+        while (!fin && (ClaseCaracter.esDigito(caracterActual) || caracterActual == '.')) {
             if (caracterActual == '.') {
                 if (esFlotante) {
                     // Ya se encontró un punto decimal antes
@@ -262,57 +334,38 @@ public class AnalizadorLexico {
                 }
                 esFlotante = true;
             }
-
             lexema.append((char) caracterActual);
             avanzar();
         }
-
-        String texto = lexema.toString();
-
-        try {
-            if (esFlotante) {
-                float valor = Float.parseFloat(texto);
-                int valorRedondeado = Math.round(valor);
-                Token token = new Token(texto, TipoToken.NUMERO, inicioLinea, inicioColumna, valorRedondeado);
-                tokens.add(token);
-                return token;
-            } else {
-                int valor = Integer.parseInt(texto);
-                Token token = new Token(texto, TipoToken.NUMERO, inicioLinea, inicioColumna, valor);
-                tokens.add(token);
-                return token;
-            }
-        } catch (NumberFormatException e) {
-            String mensaje = "Número inválido: " + texto;
-            error(mensaje);
-            Token token = new Token(texto, TipoToken.ERROR, inicioLinea, inicioColumna, mensaje);
-            tokens.add(token);
-            return token;
-        }
     }
 
-    // Maneja comentarios de línea
-    private Token manejarComentario(int inicioLinea, int inicioColumna) {
-        // Consumir los dos caracteres '//'
-        lexema.append((char) caracterActual);
-        avanzar();
-        lexema.append((char) caracterActual);
-        avanzar();
+    // Salta un comentario de línea, incluido su salto de línea. El caracter
+    // actual es la primera '/'; el resto de la línea se busca directamente
+    // en la ventana sin pasar carácter a carácter por avanzar(). La búsqueda
+    // es carácter a carácter a propósito: agrupar los char de a cuatro en un
+    // long, como hace AnalizadorLexicoUtf8 con los bytes, resultó más lento
+    // sobre el char[] (ver RendimientoEspacios)
+    private void saltarComentario() {
+        while (true) {
+            int i = posicion;
+            while (i < limite && buffer[i] != '\n') {
+                i++;
+            }
+            columna += i - posicion;
+            posicion = i;
 
-        // Consumir el resto de la línea
-        while (!fin && caracterActual != '\n') {
-            lexema.append((char) caracterActual);
-            avanzar();
-        }
+            if (i < limite) {
+                avanzar(); // El salto de línea pasa a ser el carácter actual
+                avanzar(); // y se consume
+                return;
+            }
 
-        // Consumir el salto de línea
-        if (!fin) {
-            lexema.append((char) caracterActual);
-            avanzar();
+            if (!llenarBuffer()) {
+                caracterActual = -1;
+                fin = true;
+                return;
+            }
         }
-
-        // Los comentarios no generan tokens, así que obtenemos el siguiente
-        return siguienteToken();
     }
 
     // Analiza todo el texto de entrada
@@ -325,4 +378,19 @@ public class AnalizadorLexico {
         }
         return tokens;
     }
-}
\ No newline at end of file
+
+    // Analiza todo el texto de entrada produciendo un flujo compacto de tokens.
+    // Contiene exactamente los mismos tokens que analizar(), pero no crea objetos
+    // Token ni los conserva en la lista interna.
+    public TokenStream analizarFlujo() {
+        TokenStream flujo = new TokenStream(clasificador.getPoolSimbolos());
+        while (!fin) {
+            TipoToken tipo = escanear();
+            clasificador.agregarA(flujo);
+            if (tipo == TipoToken.EOF) {
+                break;
+            }
+        }
+        return flujo;
+    }
+}
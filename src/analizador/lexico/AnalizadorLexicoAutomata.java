@@ -0,0 +1,268 @@
+package analizador.lexico;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import analizador.diagnostico.DiagnosticSink;
+
+/**
+ * Analizador léxico dirigido por una tabla de transiciones. Recorre la entrada
+ * en un único ciclo: cada carácter se traduce a una clase y la tabla da el
+ * siguiente estado y si con ese carácter termina el token pendiente. Los
+ * lexemas se clasifican con ClasificadorTokens, como en AnalizadorLexico, así
+ * que produce exactamente los mismos tokens y diagnósticos.
+ */
+public class AnalizadorLexicoAutomata {
+
+    // Clases de caracteres; los símbolos de un carácter del vocabulario se
+    // numeran a partir de CLASE_SIMBOLO
+    private static final int CLASE_ESPACIO = 0;
+    private static final int CLASE_NUEVA_LINEA = 1;
+    private static final int CLASE_LETRA = 2;
+    private static final int CLASE_DIGITO = 3;
+    private static final int CLASE_GUION_BAJO = 4;
+    private static final int CLASE_BARRA = 5;
+    private static final int CLASE_OTRO = 6;
+    private static final int CLASE_SIMBOLO = 7;
+
+    // Estados; cada símbolo del vocabulario tiene el suyo a partir de ESTADO_SIMBOLO
+    private static final int ESTADO_INICIO = 0;
+    private static final int ESTADO_IDENTIFICADOR = 1;
+    private static final int ESTADO_NUMERO = 2;
+    private static final int ESTADO_DECIMALES = 3;
+    private static final int ESTADO_BARRA = 4;
+    private static final int ESTADO_COMENTARIO = 5;
+    private static final int ESTADO_OTRO = 6;
+    private static final int ESTADO_SIMBOLO = 7;
+
+    // Bits de cada transición: el estado destino y las acciones asociadas
+    private static final int MASCARA_ESTADO = 0x3F;
+    private static final int EMITE = 0x40; // el carácter termina el token pendiente
+    private static final int INICIA = 0x80; // el carácter comienza un token nuevo
+
+    private static final TipoToken[] SIMBOLOS;
+    private static final int NUM_CLASES;
+    private static final byte[] CLASES_ASCII = new byte[128];
+    private static final int[] TRANSICIONES;
+
+    // Construcción de la tabla a partir del vocabulario de TipoToken
+    static {
+        List<TipoToken> simbolos = new ArrayList<>();
+        for (TipoToken tipo : TipoToken.values()) {
+            String fijo = tipo.getLexemaFijo();
+            if (fijo != null && fijo.length() == 1) {
+                simbolos.add(tipo);
+            }
+        }
+        SIMBOLOS = simbolos.toArray(new TipoToken[0]);
+        NUM_CLASES = CLASE_SIMBOLO + SIMBOLOS.length;
+        int numEstados = ESTADO_SIMBOLO + SIMBOLOS.length;
+
+        for (char c = 0; c < CLASES_ASCII.length; c++) {
+            CLASES_ASCII[c] = (byte) claseUnicode(c);
+        }
+        CLASES_ASCII['_'] = CLASE_GUION_BAJO;
+        CLASES_ASCII['/'] = CLASE_BARRA;
+        for (int i = 0; i < SIMBOLOS.length; i++) {
+            CLASES_ASCII[SIMBOLOS[i].getLexemaFijo().charAt(0)] = (byte) (CLASE_SIMBOLO + i);
+        }
+
+        int clasePunto = CLASE_SIMBOLO + simbolos.indexOf(TipoToken.PUNTO);
+        TRANSICIONES = new int[numEstados * NUM_CLASES];
+        for (int estado = 0; estado < numEstados; estado++) {
+            for (int clase = 0; clase < NUM_CLASES; clase++) {
+                int inicio = desdeInicio(clase);
+                int transicion;
+                switch (estado) {
+                    case ESTADO_INICIO:
+                        transicion = inicio;
+                        break;
+                    case ESTADO_IDENTIFICADOR:
+                        transicion = clase == CLASE_LETRA || clase == CLASE_DIGITO || clase == CLASE_GUION_BAJO
+                                ? ESTADO_IDENTIFICADOR
+                                : EMITE | inicio;
+                        break;
+                    case ESTADO_NUMERO:
+                        transicion = clase == CLASE_DIGITO ? ESTADO_NUMERO
+                                : clase == clasePunto ? ESTADO_DECIMALES
+                                        : EMITE | inicio;
+                        break;
+                    case ESTADO_DECIMALES:
+                        transicion = clase == CLASE_DIGITO ? ESTADO_DECIMALES : EMITE | inicio;
+                        break;
+                    case ESTADO_BARRA:
+                        // La segunda '/' convierte el token pendiente en comentario
+                        transicion = clase == CLASE_BARRA ? ESTADO_COMENTARIO : EMITE | inicio;
+                        break;
+                    case ESTADO_COMENTARIO:
+                        transicion = clase == CLASE_NUEVA_LINEA ? ESTADO_INICIO : ESTADO_COMENTARIO;
+                        break;
+                    default:
+                        // Símbolos y caracteres no reconocidos: tokens de un carácter
+                        transicion = EMITE | inicio;
+                        break;
+                }
+                TRANSICIONES[estado * NUM_CLASES + clase] = transicion;
+            }
+        }
+    }
+
+    // Transición desde el estado inicial para una clase de carácter
+    private static int desdeInicio(int clase) {
+        switch (clase) {
+            case CLASE_ESPACIO:
+            case CLASE_NUEVA_LINEA:
+                return ESTADO_INICIO;
+            case CLASE_LETRA:
+                return INICIA | ESTADO_IDENTIFICADOR;
+            case CLASE_DIGITO:
+                return INICIA | ESTADO_NUMERO;
+            case CLASE_BARRA:
+                return INICIA | ESTADO_BARRA;
+            case CLASE_GUION_BAJO:
+            case CLASE_OTRO:
+                return INICIA | ESTADO_OTRO;
+            default:
+                return INICIA | (ESTADO_SIMBOLO + clase - CLASE_SIMBOLO);
+        }
+    }
+
+    // Clase de un carácter según las consultas Unicode que usa AnalizadorLexico
+    private static int claseUnicode(char c) {
+        if (c == '\n') {
+            return CLASE_NUEVA_LINEA;
+        }
+        if (Character.isWhitespace(c)) {
+            return CLASE_ESPACIO;
+        }
+        if (Character.isLetter(c)) {
+            return CLASE_LETRA;
+        }
+        if (Character.isDigit(c)) {
+            return CLASE_DIGITO;
+        }
+        return CLASE_OTRO;
+    }
+
+    private final char[] texto;
+    private final ClasificadorTokens clasificador;
+    private final StringBuilder lexema;
+
+    // Posición del carácter que termina el token al emitirlo (para los diagnósticos)
+    private int lineaActual;
+    private int columnaActual;
+
+    public AnalizadorLexicoAutomata(char[] texto) {
+        this.texto = texto;
+        this.clasificador = new ClasificadorTokens();
+        this.lexema = clasificador.getLexema();
+    }
+
+    public AnalizadorLexicoAutomata(String texto) {
+        this(texto.toCharArray());
+    }
+
+    // Destino de los errores léxicos; por omisión ninguno, como en
+    // AnalizadorSintactico. Los errores siguen en los tokens ERROR; quien quiera
+    // verlos en consola pasa un ConsolaDiagnosticos
+    public void setDiagnosticos(DiagnosticSink diagnosticos) {
+        clasificador.setDiagnosticos(diagnosticos);
+    }
+
+    public PoolSimbolos getPoolSimbolos() {
+        return clasificador.getPoolSimbolos();
+    }
+
+    // Analiza toda la entrada y devuelve los mismos tokens que AnalizadorLexico.analizarFlujo()
+    public TokenStream analizarFlujo() {
+        TokenStream flujo = new TokenStream(clasificador.getPoolSimbolos());
+        int n = texto.length;
+        int estado = ESTADO_INICIO;
+        int linea = 1;
+        int inicioLinea = 0;
+        int inicio = 0;
+        int lineaInicio = 0;
+        int columnaInicio = 0;
+        clasificador.setDespuesDePunto(false);
+
+        for (int p = 0; p < n; p++) {
+            char c = texto[p];
+            if (c == '\n') {
+                linea++;
+                inicioLinea = p + 1;
+            }
+
+            int clase = c < 128 ? CLASES_ASCII[c] : claseNoAscii(c);
+            int transicion = TRANSICIONES[estado * NUM_CLASES + clase];
+
+            if ((transicion & EMITE) != 0) {
+                lineaActual = linea;
+                columnaActual = p - inicioLinea + 1;
+                emitir(flujo, estado, inicio, p, lineaInicio, columnaInicio);
+            }
+            if ((transicion & INICIA) != 0) {
+                inicio = p;
+                lineaInicio = linea;
+                columnaInicio = p - inicioLinea + 1;
+            }
+            estado = transicion & MASCARA_ESTADO;
+        }
+
+        // Fin de la entrada: al fin de archivo la columna ya no avanza
+        lineaActual = linea;
+        columnaActual = n - inicioLinea;
+        if (estado != ESTADO_INICIO && estado != ESTADO_COMENTARIO) {
+            // Como en AnalizadorLexico, no hay token EOF si la entrada termina dentro de un token
+            emitir(flujo, estado, inicio, n, lineaInicio, columnaInicio);
+        } else if (n > 0) {
+            clasificador.iniciar(n, lineaActual, columnaActual);
+            clasificador.fin();
+            clasificador.agregarA(flujo);
+        }
+        return flujo;
+    }
+
+    // Analiza toda la entrada y materializa la lista de tokens
+    public List<Token> analizar() {
+        TokenStream flujo = analizarFlujo();
+        List<Token> tokens = new ArrayList<>(flujo.tamano());
+        for (int i = 0; i < flujo.tamano(); i++) {
+            tokens.add(flujo.getToken(i));
+        }
+        return tokens;
+    }
+
+    private static int claseNoAscii(char c) {
+        if (Character.isWhitespace(c)) {
+            return CLASE_ESPACIO;
+        }
+        if (Character.isLetter(c)) {
+            return CLASE_LETRA;
+        }
+        if (Character.isDigit(c)) {
+            return CLASE_DIGITO;
+        }
+        return CLASE_OTRO;
+    }
+
+    // Agrega al flujo el token texto[inicio, fin) aceptado en el estado dado
+    private void emitir(TokenStream flujo, int estado, int inicio, int fin, int linea, int columna) {
+        clasificador.iniciar(inicio, linea, columna);
+        lexema.append(texto, inicio, fin - inicio);
+
+        switch (estado) {
+            case ESTADO_IDENTIFICADOR:
+                clasificador.identificador(lineaActual, columnaActual);
+                break;
+            case ESTADO_NUMERO:
+            case ESTADO_DECIMALES:
+                clasificador.numero(lineaActual, columnaActual);
+                break;
+            default:
+                // Símbolos, '/' sola y caracteres no reconocidos: un solo carácter
+                clasificador.simbolo(lineaActual, columnaActual);
+                break;
+        }
+        clasificador.agregarA(flujo);
+    }
+}
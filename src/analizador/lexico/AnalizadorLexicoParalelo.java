@@ -0,0 +1,224 @@
+package analizador.lexico;
+
+import java.io.CharArrayReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import analizador.diagnostico.CodigoDiagnostico;
+import analizador.diagnostico.ColectorDiagnosticos;
+import analizador.diagnostico.DiagnosticSink;
+import analizador.diagnostico.Diagnostico;
+
+/**
+ * Análisis léxico en paralelo para programas grandes. Ningún token cruza un
+ * salto de línea (los comentarios terminan en él), así que la entrada se
+ * divide en trozos que acaban en '\n' y cada uno se analiza con su propio
+ * AnalizadorLexico en un ForkJoinPool. Después los trozos se unen en orden:
+ * se desplazan las líneas, se traducen los ids de símbolo a un único pool, se
+ * reenvían los diagnósticos y se corrige el estado "después de un punto" que
+ * pasa de un trozo al siguiente. El resultado es idéntico al del analizador
+ * secuencial.
+ */
+public class AnalizadorLexicoParalelo {
+    // Tamaño por omisión de cada trozo, en caracteres
+    private static final int TAMANO_TROZO = 1 << 20;
+
+    // Tokens producidos por el camino de identificadores, los únicos que
+    // consumen el estado "después de un punto"
+    private static final boolean[] CONSUME_PUNTO = new boolean[TipoToken.values().length];
+
+    static {
+        for (TipoToken tipo : TipoToken.values()) {
+            String fijo = tipo.getLexemaFijo();
+            CONSUME_PUNTO[tipo.ordinal()] = tipo == TipoToken.IDENTIFICADOR
+                    || fijo != null && (PalabrasClave.palabraReservada(fijo) == tipo
+                            || PalabrasClave.metodoRobot(fijo) == tipo);
+        }
+    }
+
+    private final char[] texto;
+    private int tamanoTrozo;
+    private ForkJoinPool pool;
+    private DiagnosticSink diagnosticos;
+    private PoolSimbolos simbolos;
+
+    public AnalizadorLexicoParalelo(char[] texto) {
+        this.texto = texto;
+        this.tamanoTrozo = TAMANO_TROZO;
+        this.pool = ForkJoinPool.commonPool();
+        this.diagnosticos = null;
+        this.simbolos = new PoolSimbolos();
+    }
+
+    public AnalizadorLexicoParalelo(String texto) {
+        this(texto.toCharArray());
+    }
+
+    // Cantidad aproximada de caracteres por trozo (cada trozo se extiende hasta el siguiente '\n')
+    public void setTamanoTrozo(int tamanoTrozo) {
+        if (tamanoTrozo <= 0) {
+            throw new IllegalArgumentException("El tamaño de trozo debe ser positivo: " + tamanoTrozo);
+        }
+        this.tamanoTrozo = tamanoTrozo;
+    }
+
+    // Pool en el que se analizan los trozos (por omisión, el pool común)
+    public void setPool(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Destino de los errores léxicos; por omisión ninguno, como en
+    // AnalizadorLexico. Recibe los diagnósticos en el mismo orden que con el
+    // analizador secuencial
+    public void setDiagnosticos(DiagnosticSink diagnosticos) {
+        this.diagnosticos = diagnosticos;
+    }
+
+    public PoolSimbolos getPoolSimbolos() {
+        return simbolos;
+    }
+
+    // Analiza toda la entrada y devuelve los mismos tokens que AnalizadorLexico.analizarFlujo()
+    public TokenStream analizarFlujo() {
+        List<Trozo> trozos = analizarTrozos();
+
+        TokenStream flujo = new TokenStream(simbolos);
+        boolean despuesDePunto = false;
+        int desplazamientoLineas = 0;
+
+        for (int k = 0; k < trozos.size(); k++) {
+            Trozo trozo = trozos.get(k);
+            // El trozo se analizó sin punto pendiente; si el anterior dejó uno y el
+            // trozo empieza por un identificador, se vuelve a analizar con el estado correcto
+            if (despuesDePunto && trozo.dependeDelPunto()) {
+                trozo = analizarTrozo(trozo.inicio, trozo.fin, true);
+            }
+            despuesDePunto = trozo.despuesDePuntoAlFinal(despuesDePunto);
+
+            PoolSimbolos local = trozo.flujo.getPoolSimbolos();
+            int[] ids = new int[local.tamano()];
+            for (int id = 0; id < ids.length; id++) {
+                ids[id] = simbolos.internar(local.getNombre(id));
+            }
+
+            // Los trozos intermedios terminan en '\n' y por tanto en un EOF que se descarta
+            int cantidad = trozo.flujo.tamano();
+            if (k < trozos.size() - 1) {
+                cantidad--;
+            }
+            flujo.anexar(trozo.flujo, cantidad, trozo.inicio, desplazamientoLineas, ids);
+
+            if (diagnosticos != null) {
+                for (Diagnostico d : trozo.errores.getDiagnosticos()) {
+                    diagnosticos.reportar(d.getTipo(), d.getCodigo(), d.getLinea() + desplazamientoLineas,
+                            d.getColumna(), d.getArgumentos());
+                }
+            }
+            desplazamientoLineas += trozo.saltosDeLinea;
+        }
+        return flujo;
+    }
+
+    // Analiza toda la entrada y materializa la lista de tokens
+    public List<Token> analizar() {
+        TokenStream flujo = analizarFlujo();
+        List<Token> tokens = new ArrayList<>(flujo.tamano());
+        for (int i = 0; i < flujo.tamano(); i++) {
+            tokens.add(flujo.getToken(i));
+        }
+        return tokens;
+    }
+
+    // Divide la entrada en trozos terminados en '\n' y los analiza en el pool
+    private List<Trozo> analizarTrozos() {
+        List<int[]> limites = new ArrayList<>();
+        int inicio = 0;
+        while (inicio < texto.length) {
+            int fin = Math.min(texto.length, inicio + tamanoTrozo);
+            while (fin < texto.length && texto[fin - 1] != '\n') {
+                fin++;
+            }
+            limites.add(new int[] { inicio, fin });
+            inicio = fin;
+        }
+
+        List<Trozo> trozos = new ArrayList<>(limites.size());
+        if (limites.size() <= 1) {
+            trozos.add(analizarTrozo(0, texto.length, false));
+            return trozos;
+        }
+
+        List<ForkJoinTask<Trozo>> tareas = new ArrayList<>(limites.size());
+        for (int[] limite : limites) {
+            tareas.add(pool.submit(() -> analizarTrozo(limite[0], limite[1], false)));
+        }
+        for (ForkJoinTask<Trozo> tarea : tareas) {
+            trozos.add(tarea.join());
+        }
+        return trozos;
+    }
+
+    private Trozo analizarTrozo(int inicio, int fin, boolean despuesDePunto) {
+        AnalizadorLexico lexer = new AnalizadorLexico(new CharArrayReader(texto, inicio, fin - inicio),
+                despuesDePunto);
+        ColectorDiagnosticos errores = new ColectorDiagnosticos();
+        lexer.setDiagnosticos(errores);
+        TokenStream flujo = lexer.analizarFlujo();
+        return new Trozo(inicio, fin, flujo, errores, lexer.getLineaActual() - 1);
+    }
+
+    /**
+     * Resultado del análisis de un trozo, con líneas relativas a su inicio
+     */
+    private static final class Trozo {
+        final int inicio;
+        final int fin;
+        final TokenStream flujo;
+        final ColectorDiagnosticos errores;
+        final int saltosDeLinea;
+
+        Trozo(int inicio, int fin, TokenStream flujo, ColectorDiagnosticos errores, int saltosDeLinea) {
+            this.inicio = inicio;
+            this.fin = fin;
+            this.flujo = flujo;
+            this.errores = errores;
+            this.saltosDeLinea = saltosDeLinea;
+        }
+
+        // Indica si el primer identificador del trozo aparece antes que cualquier
+        // punto, es decir, si su clasificación depende del estado inicial
+        boolean dependeDelPunto() {
+            for (int i = 0; i < flujo.tamano(); i++) {
+                TipoToken tipo = flujo.getTipo(i);
+                if (tipo == TipoToken.PUNTO) {
+                    return false;
+                }
+                if (consumePunto(i)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Estado "después de un punto" al terminar el trozo, dado el estado con el que empezó
+        boolean despuesDePuntoAlFinal(boolean alInicio) {
+            for (int i = flujo.tamano() - 1; i >= 0; i--) {
+                if (flujo.getTipo(i) == TipoToken.PUNTO) {
+                    return true;
+                }
+                if (consumePunto(i)) {
+                    return false;
+                }
+            }
+            return alInicio;
+        }
+
+        private boolean consumePunto(int i) {
+            TipoToken tipo = flujo.getTipo(i);
+            return CONSUME_PUNTO[tipo.ordinal()]
+                    || tipo == TipoToken.ERROR && flujo.getCodigoError(i) == CodigoDiagnostico.METODO_DESCONOCIDO;
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package analizador.lexico;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import analizador.diagnostico.DiagnosticSink;
+
+/**
+ * Analizador léxico que trabaja directamente sobre bytes UTF-8 (un byte[] o un
+ * ByteBuffer, por ejemplo un archivo proyectado o un búfer recibido por red).
+ * Los bytes ASCII se usan tal cual; solo los tramos de bytes no ASCII pasan por
+ * el decodificador. Las columnas se cuentan en unidades UTF-16, así que tokens,
+ * posiciones y diagnósticos coinciden con los de AnalizadorLexico sobre el
+ * mismo texto decodificado; los dos clasifican los lexemas con
+ * ClasificadorTokens. Solo este analizador recorre espacios y comentarios de
+ * 8 en 8 bytes, y solo en tramos ASCII: un comentario con letras acentuadas
+ * pasa por el decodificador como el resto del texto no ASCII.
+ */
+public class AnalizadorLexicoUtf8 {
+    // Máximo de bytes no ASCII decodificados de una vez
+    private static final int TAMANO_DECODIFICADOS = 1024;
+
+    // Lectura de 8 bytes como un long (el byte de menor dirección queda en los
+    // bits bajos) para recorrer espacios y comentarios palabra a palabra
+    private static final VarHandle PALABRAS = MethodHandles.byteBufferViewVarHandle(long[].class,
+            ByteOrder.LITTLE_ENDIAN);
+    private static final long BAJOS = 0x7F7F7F7F7F7F7F7FL;
+    private static final long ALTOS = 0x8080808080808080L;
+    private static final long SALTOS = 0x0A0A0A0A0A0A0A0AL;
+    private static final long ESPACIOS = 0x2020202020202020L;
+    private static final long TABULADORES = 0x0909090909090909L;
+
+    private final ByteBuffer datos;
+    private final ByteBuffer vista;
+    private final CharsetDecoder decodificador;
+    private int posicion;
+    private final int limite;
+
+    // Caracteres ya decodificados de un tramo no ASCII, pendientes de consumir
+    private final char[] decodificados;
+    private int pendiente;
+    private int totalPendientes;
+
+    private final ClasificadorTokens clasificador;
+    private final StringBuilder lexema;
+    private int caracterActual;
+    private boolean fin;
+    private int linea;
+    private int columna;
+    // Desplazamiento del carácter actual en el texto decodificado, en unidades UTF-16
+    private int desplazamiento;
+
+    public AnalizadorLexicoUtf8(byte[] datos) {
+        this(ByteBuffer.wrap(datos));
+    }
+
+    public AnalizadorLexicoUtf8(byte[] datos, int desde, int longitud) {
+        this(ByteBuffer.wrap(datos, desde, longitud));
+    }
+
+    // Analiza los bytes entre la posición y el límite del búfer, sin modificarlos
+    public AnalizadorLexicoUtf8(ByteBuffer datos) {
+        this.datos = datos;
+        this.vista = datos.duplicate();
+        this.decodificador = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.posicion = datos.position();
+        this.limite = datos.limit();
+        this.decodificados = new char[TAMANO_DECODIFICADOS];
+        this.pendiente = 0;
+        this.totalPendientes = 0;
+        this.clasificador = new ClasificadorTokens();
+        this.lexema = clasificador.getLexema();
+        this.fin = false;
+        this.linea = 1;
+        this.columna = 0;
+        this.desplazamiento = -1;
+        avanzar();
+    }
+
+    // Indica si el siguiente carácter se lee directamente de los bytes
+    private boolean leyendoBytes() {
+        return pendiente == totalPendientes;
+    }
+
+    // Decodifica el tramo de bytes no ASCII que empieza en la posición actual.
+    // Un byte ASCII nunca forma parte de una secuencia UTF-8 de varios bytes, así
+    // que decodificar cada tramo por separado da el mismo resultado que
+    // decodificar toda la entrada
+    private void decodificar() {
+        int maximo = Math.min(limite, posicion + TAMANO_DECODIFICADOS);
+        int finTramo = posicion;
+        while (finTramo < maximo && datos.get(finTramo) < 0) {
+            finTramo++;
+        }
+        boolean tramoCompleto = finTramo < maximo || finTramo == limite;
+
+        vista.limit(finTramo).position(posicion);
+        CharBuffer destino = CharBuffer.wrap(decodificados);
+        decodificador.reset();
+        decodificador.decode(vista, destino, tramoCompleto);
+        if (tramoCompleto) {
+            decodificador.flush(destino);
+        }
+
+        posicion = vista.position();
+        pendiente = 0;
+        totalPendientes = destino.position();
+    }
+
+    // Avanza al siguiente carácter en la entrada
+    private void avanzar() {
+        desplazamiento++;
+        if (leyendoBytes()) {
+            if (posicion >= limite) {
+                caracterActual = -1;
+                fin = true;
+                return;
+            }
+
+            byte b = datos.get(posicion);
+            if (b >= 0) {
+                posicion++;
+                caracterActual = b;
+            } else {
+                decodificar();
+                caracterActual = decodificados[pendiente++];
+            }
+        } else {
+            caracterActual = decodificados[pendiente++];
+        }
+
+        columna++;
+        if (caracterActual == '\n') {
+            linea++;
+            columna = 0;
+        }
+    }
+
+    // Consulta el carácter siguiente al actual sin consumirlo (-1 al final)
+    private int verSiguiente() {
+        if (leyendoBytes()) {
+            if (posicion >= limite) {
+                return -1;
+            }
+
+            byte b = datos.get(posicion);
+            if (b >= 0) {
+                return b;
+            }
+            decodificar();
+        }
+        return decodificados[pendiente];
+    }
+
+    // Verifica si ya se llegó al final de la entrada
+    public boolean finEntrada() {
+        return fin;
+    }
+
+    // Destino de los errores léxicos; por omisión ninguno, como en
+    // AnalizadorSintactico. Los errores siguen en los tokens ERROR; quien quiera
+    // verlos en consola pasa un ConsolaDiagnosticos
+    public void setDiagnosticos(DiagnosticSink diagnosticos) {
+        clasificador.setDiagnosticos(diagnosticos);
+    }
+
+    public DiagnosticSink getDiagnosticos() {
+        return clasificador.getDiagnosticos();
+    }
+
+    // Identificadores registrados en este análisis
+    public PoolSimbolos getPoolSimbolos() {
+        return clasificador.getPoolSimbolos();
+    }
+
+    // Obtiene el siguiente token
+    public Token siguienteToken() {
+        escanear();
+        return clasificador.crearToken();
+    }
+
+    // Reconoce el siguiente token y deja sus datos en el clasificador
+    private TipoToken escanear() {
+        // Saltar espacios en blanco y comentarios; los comentarios no generan tokens
+        while (true) {
+            while (!fin && ClaseCaracter.esEspacio(caracterActual)) {
+                saltarEspaciosAscii();
+                avanzar();
+            }
+
+            if (caracterActual == '/' && verSiguiente() == '/') {
+                saltarComentario();
+            } else {
+                break;
+            }
+        }
+
+        clasificador.iniciar(desplazamiento, linea, columna);
+        if (fin) {
+            return clasificador.fin();
+        }
+
+        // Identificadores y palabras reservadas
+        if (ClaseCaracter.esLetra(caracterActual)) {
+            consumirPalabra();
+            return clasificador.identificador(linea, columna);
+        }
+
+        // Números
+        if (ClaseCaracter.esDigito(caracterActual)) {
+            consumirNumero();
+            return clasificador.numero(linea, columna);
+        }
+
+        // Símbolos especiales, operadores y caracteres no reconocidos
+        lexema.append((char) caracterActual);
+        avanzar();
+        return clasificador.simbolo(linea, columna);
+    }
+
+    // Marca con el bit alto cada byte de x que vale cero (sin falsos positivos)
+    private static long bytesCero(long x) {
+        return ~(((x & BAJOS) + BAJOS) | x | BAJOS);
+    }
+
+    // Primer índice desde i cuyo byte no es ' ' ni '\t', de 8 en 8 bytes
+    private int saltarBlancos(int i) {
+        while (i + 8 <= limite) {
+            long x = (long) PALABRAS.get(datos, i);
+            long distintos = ~(bytesCero(x ^ ESPACIOS) | bytesCero(x ^ TABULADORES)) & ALTOS;
+            if (distintos != 0) {
+                return i + (Long.numberOfTrailingZeros(distintos) >>> 3);
+            }
+            i += 8;
+        }
+        return i;
+    }
+
+    // Primer índice desde i cuyo byte es '\n' o no ASCII, o el límite si no hay ninguno
+    private int buscarFinDeLinea(int i) {
+        while (i + 8 <= limite) {
+            long x = (long) PALABRAS.get(datos, i);
+            long marcas = (bytesCero(x ^ SALTOS) | x) & ALTOS;
+            if (marcas != 0) {
+                return i + (Long.numberOfTrailingZeros(marcas) >>> 3);
+            }
+            i += 8;
+        }
+        byte b;
+        while (i < limite && (b = datos.get(i)) >= 0 && b != '\n') {
+            i++;
+        }
+        return i;
+    }
+
+    // Descarta los bytes de espacio ASCII que siguen al carácter actual, sin
+    // cruzar saltos de línea. Los tramos de ' ' y '\t' se recorren de 8 en 8
+    // bytes; el resto de espacios en línea ('\r', '\f'...) byte a byte
+    private void saltarEspaciosAscii() {
+        if (!leyendoBytes()) {
+            return;
+        }
+        int i = saltarBlancos(posicion);
+        byte b;
+        while (i < limite && (b = datos.get(i)) >= 0 && ClaseCaracter.esEspacioEnLinea((char) b)) {
+            i++;
+        }
+        columna += i - posicion;
+        desplazamiento += i - posicion;
+        posicion = i;
+    }
+
+    // Consume las letras, dígitos y guiones bajos de una palabra; los tramos
+    // ASCII se copian byte a byte al lexema y solo los no ASCII se decodifican
+    private void consumirPalabra() {
+        do {
+            lexema.append((char) caracterActual);
+            if (leyendoBytes()) {
+                int i = posicion;
+                byte b;
+                while (i < limite && (b = datos.get(i)) >= 0
+                        && ClaseCaracter.esContinuacionIdentificadorAscii((char) b)) {
+                    lexema.append((char) b);
+                    i++;
+                }
+                columna += i - posicion;
+                desplazamiento += i - posicion;
+                posicion = i;
+            }
+            avanzar();
+        } while (!fin && ClaseCaracter.esContinuacionIdentificador(caracterActual));
+    }
+
+    // Consume los dígitos de un número y a lo sumo un punto decimal
+    private void consumirNumero() {
+        boolean esFlotante = false;
+        while (!fin && (ClaseCaracter.esDigito(caracterActual) || caracterActual == '.')) {
+            if (caracterActual == '.') {
+                if (esFlotante) {
+                    // Ya se encontró un punto decimal antes
+                    break;
+                }
+                esFlotante = true;
+            }
+            lexema.append((char) caracterActual);
+            avanzar();
+        }
+    }
+
+    // Salta un comentario de línea, incluido su salto de línea. Los bytes ASCII
+    // se recorren de 8 en 8 buscando el '\n', que en UTF-8 nunca aparece dentro
+    // de una secuencia de varios bytes
+    private void saltarComentario() {
+        while (!fin && caracterActual != '\n') {
+            if (leyendoBytes()) {
+                int i = buscarFinDeLinea(posicion);
+                columna += i - posicion;
+                desplazamiento += i - posicion;
+                posicion = i;
+            }
+            avanzar();
+        }
+        if (!fin) {
+            avanzar();
+        }
+    }
+
+    // Analiza toda la entrada
+    public List<Token> analizar() {
+        List<Token> tokens = new ArrayList<>();
+        while (!fin) {
+            Token token = siguienteToken();
+            tokens.add(token);
+            if (token.getTipo() == TipoToken.EOF) {
+                break;
+            }
+        }
+        return tokens;
+    }
+
+    // Analiza toda la entrada produciendo un flujo compacto de tokens
+    public TokenStream analizarFlujo() {
+        TokenStream flujo = new TokenStream(clasificador.getPoolSimbolos());
+        while (!fin) {
+            TipoToken tipo = escanear();
+            clasificador.agregarA(flujo);
+            if (tipo == TipoToken.EOF) {
+                break;
+            }
+        }
+        return flujo;
+    }
+}
@@ -0,0 +1,70 @@
+package analizador.lexico;
+
+/**
+ * Clasificación de caracteres para el analizador léxico. Los caracteres ASCII
+ * se resuelven con una tabla precalculada; solo por encima de 0x7F se recurre
+ * a las consultas Unicode de Character. La tabla no es más rápida que
+ * Character, que ya resuelve Latin-1 con su propia tabla (ver
+ * RendimientoClaseCaracter); está para que la división entre ASCII y Unicode
+ * quede explícita y para las variantes solo ASCII que usan los recorridos
+ * sobre la ventana.
+ */
+final class ClaseCaracter {
+    static final byte ESPACIO = 1;
+    static final byte LETRA = 2;
+    static final byte DIGITO = 4;
+    // Letras, dígitos y '_': caracteres que continúan un identificador
+    static final byte CONTINUA_IDENTIFICADOR = 8;
+
+    private static final byte[] TABLA = new byte[128];
+
+    // La tabla se construye con los mismos métodos de Character que sustituye,
+    // así el resultado es idéntico en todo el rango ASCII
+    static {
+        for (char c = 0; c < TABLA.length; c++) {
+            byte clase = 0;
+            if (Character.isWhitespace(c)) {
+                clase |= ESPACIO;
+            }
+            if (Character.isLetter(c)) {
+                clase |= LETRA;
+            }
+            if (Character.isDigit(c)) {
+                clase |= DIGITO;
+            }
+            if (Character.isLetterOrDigit(c) || c == '_') {
+                clase |= CONTINUA_IDENTIFICADOR;
+            }
+            TABLA[c] = clase;
+        }
+    }
+
+    private ClaseCaracter() {
+    }
+
+    // Espacio ASCII distinto del salto de línea (no altera la línea actual)
+    static boolean esEspacioEnLinea(char c) {
+        return c < 128 && (TABLA[c] & ESPACIO) != 0 && c != '\n';
+    }
+
+    // Letra, dígito o '_' ASCII
+    static boolean esContinuacionIdentificadorAscii(char c) {
+        return c < 128 && (TABLA[c] & CONTINUA_IDENTIFICADOR) != 0;
+    }
+
+    static boolean esEspacio(int c) {
+        return (c & ~0x7F) == 0 ? (TABLA[c] & ESPACIO) != 0 : Character.isWhitespace(c);
+    }
+
+    static boolean esLetra(int c) {
+        return (c & ~0x7F) == 0 ? (TABLA[c] & LETRA) != 0 : Character.isLetter(c);
+    }
+
+    static boolean esDigito(int c) {
+        return (c & ~0x7F) == 0 ? (TABLA[c] & DIGITO) != 0 : Character.isDigit(c);
+    }
+
+    static boolean esContinuacionIdentificador(int c) {
+        return (c & ~0x7F) == 0 ? (TABLA[c] & CONTINUA_IDENTIFICADOR) != 0 : Character.isLetterOrDigit(c);
+    }
+}
@@ -0,0 +1,219 @@
+package analizador.lexico;
+
+import analizador.diagnostico.CodigoDiagnostico;
+import analizador.diagnostico.DiagnosticSink;
+import analizador.diagnostico.TipoDiagnostico;
+
+/**
+ * Parte común de los analizadores léxicos. Cada analizador lee su entrada,
+ * delimita el lexema y lo deja en getLexema(); aquí se decide el tipo del
+ * token, se convierten los números, se reportan los errores y se entrega el
+ * token como objeto Token o en un TokenStream. Los errores se reportan en la
+ * posición que indique el analizador, que es la de después del token, y solo
+ * si hay un destino configurado; el token ERROR siempre lleva su mensaje.
+ */
+final class ClasificadorTokens {
+    private final StringBuilder lexema;
+    private final PoolSimbolos simbolos;
+    private DiagnosticSink diagnosticos;
+    private boolean despuesDePunto;
+
+    // Datos del último token clasificado
+    private TipoToken tipo;
+    private int inicio;
+    private int linea;
+    private int columna;
+    private int valor;
+    private int idSimbolo;
+    private CodigoDiagnostico codigo;
+
+    ClasificadorTokens() {
+        this.lexema = new StringBuilder();
+        this.simbolos = new PoolSimbolos();
+        this.diagnosticos = null;
+        this.despuesDePunto = false;
+    }
+
+    // Comienza un token con el lexema vacío; inicio es el desplazamiento de su
+    // primer carácter en la entrada
+    void iniciar(int inicio, int linea, int columna) {
+        lexema.setLength(0);
+        this.inicio = inicio;
+        this.linea = linea;
+        this.columna = columna;
+        this.valor = 0;
+        this.idSimbolo = -1;
+        this.codigo = null;
+    }
+
+    // Fin de la entrada
+    TipoToken fin() {
+        return tipo = TipoToken.EOF;
+    }
+
+    // Clasifica un lexema de un solo carácter: un símbolo del vocabulario o un
+    // carácter no reconocido
+    TipoToken simbolo(int lineaError, int columnaError) {
+        switch (lexema.charAt(0)) {
+            case '.':
+                despuesDePunto = true;
+                return tipo = TipoToken.PUNTO;
+            case '=':
+                return tipo = TipoToken.IGUAL;
+            case '(':
+                return tipo = TipoToken.PARENTESIS_A;
+            case ')':
+                return tipo = TipoToken.PARENTESIS_C;
+            case '{':
+                return tipo = TipoToken.LLAVE_A;
+            case '}':
+                return tipo = TipoToken.LLAVE_C;
+            case ',':
+                return tipo = TipoToken.COMA;
+            case ';':
+                return tipo = TipoToken.PUNTO_COMA;
+            default:
+                return error(CodigoDiagnostico.SIMBOLO_NO_RECONOCIDO, lineaError, columnaError);
+        }
+    }
+
+    // Clasifica una palabra: después de un punto debe ser un método de robot;
+    // si no, es una palabra reservada o un identificador. Solo se crea un
+    // String para la primera aparición de cada identificador del usuario
+    TipoToken identificador(int lineaError, int columnaError) {
+        if (despuesDePunto) {
+            despuesDePunto = false;
+            TipoToken metodo = PalabrasClave.metodoRobot(lexema);
+            if (metodo == null) {
+                return error(CodigoDiagnostico.METODO_DESCONOCIDO, lineaError, columnaError);
+            }
+            return tipo = metodo;
+        }
+
+        TipoToken reservada = PalabrasClave.palabraReservada(lexema);
+        if (reservada != null) {
+            return tipo = reservada;
+        }
+        idSimbolo = simbolos.internar(lexema);
+        return tipo = TipoToken.IDENTIFICADOR;
+    }
+
+    // Convierte un lexema de dígitos con a lo sumo un punto decimal sin construir
+    // un String: los enteros como lo haría Integer.parseInt y los flotantes
+    // redondeados como Math.round(Float.parseFloat(texto))
+    TipoToken numero(int lineaError, int columnaError) {
+        boolean esFlotante = false;
+        boolean desborde = false;
+        boolean digitoNoAscii = false;
+        long parteEntera = 0;
+        int primerDecimal = 0;
+        int decimales = 0;
+
+        for (int i = 0; i < lexema.length(); i++) {
+            char c = lexema.charAt(i);
+            if (c == '.') {
+                esFlotante = true;
+                continue;
+            }
+
+            int digito = c - '0';
+            if (digito < 0 || digito > 9) {
+                // Dígito Unicode: válido para Integer.parseInt pero no para Float.parseFloat
+                digitoNoAscii = true;
+                digito = Character.digit(c, 10);
+            }
+
+            if (esFlotante) {
+                if (decimales == 0) {
+                    primerDecimal = digito;
+                }
+                decimales++;
+            } else if (!desborde) {
+                parteEntera = parteEntera * 10 + digito;
+                desborde = parteEntera > Integer.MAX_VALUE;
+            }
+        }
+
+        if (!esFlotante && !desborde) {
+            valor = (int) parteEntera;
+            return tipo = TipoToken.NUMERO;
+        }
+
+        if (esFlotante && !digitoNoAscii) {
+            // Con parte entera pequeña y hasta tres decimales la conversión a float
+            // no puede cruzar el punto medio, así que basta el primer decimal
+            if (parteEntera < 4096 && decimales <= 3) {
+                valor = (int) parteEntera + (primerDecimal >= 5 ? 1 : 0);
+            } else {
+                valor = Math.round(Float.parseFloat(lexema.toString()));
+            }
+            return tipo = TipoToken.NUMERO;
+        }
+
+        return error(CodigoDiagnostico.NUMERO_INVALIDO, lineaError, columnaError);
+    }
+
+    private TipoToken error(CodigoDiagnostico codigo, int lineaError, int columnaError) {
+        this.codigo = codigo;
+        if (diagnosticos != null) {
+            diagnosticos.reportar(TipoDiagnostico.LEXICO, codigo, lineaError, columnaError, lexema.toString());
+        }
+        return tipo = TipoToken.ERROR;
+    }
+
+    // Construye un Token con los datos del último token clasificado
+    Token crearToken() {
+        String texto = tipo.getLexemaFijo() != null ? tipo.getLexemaFijo() : lexema.toString();
+
+        switch (tipo) {
+            case IDENTIFICADOR:
+                return new Token(simbolos.getNombre(idSimbolo), tipo, linea, columna, null, idSimbolo);
+            case NUMERO:
+                return new Token(texto, tipo, linea, columna, valor);
+            case ERROR:
+                return new Token(texto, tipo, linea, columna, codigo.formatear(texto));
+            default:
+                return new Token(texto, tipo, linea, columna);
+        }
+    }
+
+    // Agrega el último token clasificado al flujo compacto, sin crear objetos Token
+    void agregarA(TokenStream flujo) {
+        int dato;
+        switch (tipo) {
+            case IDENTIFICADOR:
+                dato = idSimbolo;
+                break;
+            case ERROR:
+                dato = codigo.ordinal();
+                break;
+            default:
+                dato = valor;
+                break;
+        }
+        flujo.agregar(tipo, lexema, inicio, linea, columna, dato);
+    }
+
+    // Lexema del token en curso, que el analizador va completando
+    StringBuilder getLexema() {
+        return lexema;
+    }
+
+    PoolSimbolos getPoolSimbolos() {
+        return simbolos;
+    }
+
+    // Destino de los errores léxicos (null si no hay)
+    DiagnosticSink getDiagnosticos() {
+        return diagnosticos;
+    }
+
+    void setDiagnosticos(DiagnosticSink diagnosticos) {
+        this.diagnosticos = diagnosticos;
+    }
+
+    // Estado inicial "después de un punto", para un trozo que sigue a otro
+    void setDespuesDePunto(boolean despuesDePunto) {
+        this.despuesDePunto = despuesDePunto;
+    }
+}
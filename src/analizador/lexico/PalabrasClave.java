@@ -0,0 +1,63 @@
+package analizador.lexico;
+
+/**
+ * Reconocimiento de la palabra reservada y de los métodos del robot
+ * directamente sobre los caracteres del lexema, sin construir un String.
+ * El candidato se elige por longitud y primer carácter y se confirma
+ * comparando con su lexema fijo.
+ */
+final class PalabrasClave {
+
+    private PalabrasClave() {
+    }
+
+    // Palabra reservada que corresponde al texto, o null si es un identificador
+    static TipoToken palabraReservada(CharSequence texto) {
+        if (texto.length() == 5 && texto.charAt(0) == 'R') {
+            return coincide(texto, TipoToken.ROBOT);
+        }
+        return null;
+    }
+
+    // Método o propiedad del robot que corresponde al texto, o null si no existe
+    static TipoToken metodoRobot(CharSequence texto) {
+        switch (texto.length()) {
+            case 4:
+                return texto.charAt(0) == 'b' ? coincide(texto, TipoToken.BASE) : null;
+            case 5:
+                return texto.charAt(0) == 'g' ? coincide(texto, TipoToken.GARRA) : null;
+            case 6:
+                return texto.charAt(0) == 'c' ? coincide(texto, TipoToken.CUERPO) : null;
+            case 7:
+                switch (texto.charAt(0)) {
+                    case 'i':
+                        return coincide(texto, TipoToken.INICIAR);
+                    case 'd':
+                        return coincide(texto, TipoToken.DETENER);
+                    case 'r':
+                        return coincide(texto, TipoToken.REPETIR);
+                    default:
+                        return null;
+                }
+            case 9:
+                return texto.charAt(0) == 'v' ? coincide(texto, TipoToken.VELOCIDAD) : null;
+            case 10:
+                return texto.charAt(0) == 'a' ? coincide(texto, TipoToken.ABRIR_GARRA) : null;
+            case 11:
+                return texto.charAt(0) == 'c' ? coincide(texto, TipoToken.CERRAR_GARRA) : null;
+            default:
+                return null;
+        }
+    }
+
+    // Devuelve el candidato si el texto es exactamente su lexema fijo
+    private static TipoToken coincide(CharSequence texto, TipoToken candidato) {
+        String esperado = candidato.getLexemaFijo();
+        for (int i = 1; i < esperado.length(); i++) {
+            if (texto.charAt(i) != esperado.charAt(i)) {
+                return null;
+            }
+        }
+        return candidato;
+    }
+}
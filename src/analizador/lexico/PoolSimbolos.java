@@ -0,0 +1,131 @@
+package analizador.lexico;
+
+import java.util.Arrays;
+
+/**
+ * Conjunto de identificadores de un análisis. Cada identificador distinto
+ * recibe un id entero denso (0, 1, 2...) y un único String compartido por
+ * todas sus apariciones. La búsqueda usa direccionamiento abierto sobre los
+ * caracteres del lexema, así que reconocer un identificador repetido no crea
+ * objetos.
+ */
+public class PoolSimbolos {
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    // Nombres y hashes indexados por id
+    private String[] nombres;
+    private int[] hashes;
+    private int tamano;
+
+    // Tabla de direccionamiento abierto: id + 1 en cada casilla (0 = libre)
+    private int[] casillas;
+
+    public PoolSimbolos() {
+        this.nombres = new String[CAPACIDAD_INICIAL];
+        this.hashes = new int[CAPACIDAD_INICIAL];
+        this.casillas = new int[CAPACIDAD_INICIAL * 2];
+        this.tamano = 0;
+    }
+
+    // Devuelve el id del identificador, registrándolo si es la primera vez que aparece
+    public int internar(CharSequence texto) {
+        int hash = hash(texto);
+        int mascara = casillas.length - 1;
+        int i = hash & mascara;
+
+        while (casillas[i] != 0) {
+            int id = casillas[i] - 1;
+            if (hashes[id] == hash && iguales(nombres[id], texto)) {
+                return id;
+            }
+            i = (i + 1) & mascara;
+        }
+
+        if (tamano == nombres.length) {
+            nombres = Arrays.copyOf(nombres, tamano * 2);
+            hashes = Arrays.copyOf(hashes, tamano * 2);
+        }
+
+        int id = tamano++;
+        nombres[id] = texto.toString();
+        hashes[id] = hash;
+        casillas[i] = id + 1;
+
+        // Mantener el factor de carga por debajo de 1/2
+        if (tamano * 2 > casillas.length) {
+            redimensionar();
+        }
+        return id;
+    }
+
+    // Devuelve el id del identificador, o -1 si no se ha registrado
+    public int buscar(CharSequence texto) {
+        int hash = hash(texto);
+        int mascara = casillas.length - 1;
+        int i = hash & mascara;
+
+        while (casillas[i] != 0) {
+            int id = casillas[i] - 1;
+            if (hashes[id] == hash && iguales(nombres[id], texto)) {
+                return id;
+            }
+            i = (i + 1) & mascara;
+        }
+        return -1;
+    }
+
+    public String getNombre(int id) {
+        return nombres[id];
+    }
+
+    // Cantidad de identificadores distintos registrados
+    public int tamano() {
+        return tamano;
+    }
+
+    // Duplica la tabla y reubica los ids usando los hashes guardados
+    private void redimensionar() {
+        int[] nuevas = new int[casillas.length * 2];
+        int mascara = nuevas.length - 1;
+        for (int id = 0; id < tamano; id++) {
+            int i = hashes[id] & mascara;
+            while (nuevas[i] != 0) {
+                i = (i + 1) & mascara;
+            }
+            nuevas[i] = id + 1;
+        }
+        casillas = nuevas;
+    }
+
+    // Mismo hash que String.hashCode() (el guardado en el propio String si el
+    // texto lo es), mezclado para repartir los bits bajos: nombres como r1, r2,
+    // r3 tienen hashes consecutivos que formarían racimos en el sondeo lineal
+    private static int hash(CharSequence texto) {
+        int h;
+        if (texto instanceof String) {
+            h = texto.hashCode();
+        } else {
+            h = 0;
+            for (int i = 0; i < texto.length(); i++) {
+                h = 31 * h + texto.charAt(i);
+            }
+        }
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean iguales(String nombre, CharSequence texto) {
+        if (texto instanceof String) {
+            return nombre.equals(texto);
+        }
+        if (nombre.length() != texto.length()) {
+            return false;
+        }
+        for (int i = 0; i < nombre.length(); i++) {
+            if (nombre.charAt(i) != texto.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
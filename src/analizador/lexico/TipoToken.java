@@ -5,20 +5,31 @@ package analizador.lexico;
  */
 public enum TipoToken {
     // Palabras reservadas
-    ROBOT,
+    ROBOT("Robot"),
 
     // Métodos y propiedades
-    INICIAR, DETENER,
-    BASE, CUERPO, GARRA, VELOCIDAD,
-    ABRIR_GARRA, CERRAR_GARRA, REPETIR,
+    INICIAR("iniciar"), DETENER("detener"),
+    BASE("base"), CUERPO("cuerpo"), GARRA("garra"), VELOCIDAD("velocidad"),
+    ABRIR_GARRA("abrirGarra"), CERRAR_GARRA("cerrarGarra"), REPETIR("repetir"),
 
     // Operadores y símbolos
-    PUNTO, IGUAL, PARENTESIS_A, PARENTESIS_C,
-    LLAVE_A, LLAVE_C, COMA, PUNTO_COMA,
+    PUNTO("."), IGUAL("="), PARENTESIS_A("("), PARENTESIS_C(")"),
+    LLAVE_A("{"), LLAVE_C("}"), COMA(","), PUNTO_COMA(";"),
 
     // Tipos de datos
-    IDENTIFICADOR, NUMERO,
+    IDENTIFICADOR(null), NUMERO(null),
 
     // Especiales
-    ERROR, EOF
-}
\ No newline at end of file
+    ERROR(null), EOF("EOF");
+
+    // Texto único de los tokens con lexema fijo (null si el lexema varía)
+    private final String lexemaFijo;
+
+    TipoToken(String lexemaFijo) {
+        this.lexemaFijo = lexemaFijo;
+    }
+
+    public String getLexemaFijo() {
+        return lexemaFijo;
+    }
+}
@@ -9,12 +9,15 @@ public class Token {
     private int linea;
     private int columna;
     private Object valor;
+    private int valorEntero;
+    private int idSimbolo;
 
     public Token(String lexema, TipoToken tipo, int linea, int columna) {
         this.lexema = lexema;
         this.tipo = tipo;
         this.linea = linea;
         this.columna = columna;
+        this.idSimbolo = -1;
     }
 
     public Token(String lexema, TipoToken tipo, int linea, int columna, Object valor) {
@@ -23,6 +26,29 @@ public class Token {
         this.linea = linea;
         this.columna = columna;
         this.valor = valor;
+        this.idSimbolo = -1;
+        if (valor instanceof Integer) {
+            this.valorEntero = (Integer) valor;
+        }
+    }
+
+    // Token NUMERO con su valor entero, sin encapsularlo en un objeto
+    public Token(String lexema, TipoToken tipo, int linea, int columna, int valorEntero) {
+        this.lexema = lexema;
+        this.tipo = tipo;
+        this.linea = linea;
+        this.columna = columna;
+        this.valorEntero = valorEntero;
+        this.idSimbolo = -1;
+    }
+
+    public Token(String lexema, TipoToken tipo, int linea, int columna, Object valor, int idSimbolo) {
+        this.lexema = lexema;
+        this.tipo = tipo;
+        this.linea = linea;
+        this.columna = columna;
+        this.valor = valor;
+        this.idSimbolo = idSimbolo;
     }
 
     // Getters
@@ -43,9 +69,22 @@ public class Token {
     }
 
     public Object getValor() {
+        if (valor == null && tipo == TipoToken.NUMERO) {
+            return valorEntero;
+        }
         return valor;
     }
 
+    // Valor de un token NUMERO como entero primitivo
+    public int getValorEntero() {
+        return valorEntero;
+    }
+
+    // Id del identificador en el PoolSimbolos del análisis (-1 si no es un identificador)
+    public int getIdSimbolo() {
+        return idSimbolo;
+    }
+
     @Override
     public String toString() {
         return String.format("%-20s %-15s línea: %-4d columna: %-4d",
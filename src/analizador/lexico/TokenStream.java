@@ -0,0 +1,205 @@
+package analizador.lexico;
+
+import java.util.Arrays;
+
+import analizador.diagnostico.CodigoDiagnostico;
+
+/**
+ * Secuencia compacta de tokens almacenada en arreglos primitivos paralelos
+ * (tipo, inicio en la entrada, longitud, línea, columna y valor entero). Los
+ * lexemas se materializan como String solo cuando se solicitan.
+ */
+public class TokenStream {
+    private static final int CAPACIDAD_INICIAL = 256;
+    private static final TipoToken[] TIPOS = TipoToken.values();
+    private static final CodigoDiagnostico[] CODIGOS = CodigoDiagnostico.values();
+
+    private byte[] tipos;
+    private int[] inicios;
+    private int[] iniciosTexto;
+    private int[] longitudes;
+    private int[] lineas;
+    private int[] columnas;
+    private int[] valores;
+    private int tamano;
+
+    // Texto de los lexemas de números y errores; los tokens de lexema fijo no
+    // ocupan espacio aquí y los identificadores se guardan en el pool
+    private char[] texto;
+    private int longitudTexto;
+    private PoolSimbolos simbolos;
+
+    public TokenStream() {
+        this(new PoolSimbolos());
+    }
+
+    // Flujo cuyos identificadores se resuelven en el pool dado
+    public TokenStream(PoolSimbolos simbolos) {
+        this.simbolos = simbolos;
+        this.tipos = new byte[CAPACIDAD_INICIAL];
+        this.inicios = new int[CAPACIDAD_INICIAL];
+        this.iniciosTexto = new int[CAPACIDAD_INICIAL];
+        this.longitudes = new int[CAPACIDAD_INICIAL];
+        this.lineas = new int[CAPACIDAD_INICIAL];
+        this.columnas = new int[CAPACIDAD_INICIAL];
+        this.valores = new int[CAPACIDAD_INICIAL];
+        this.tamano = 0;
+        this.texto = new char[CAPACIDAD_INICIAL * 4];
+        this.longitudTexto = 0;
+    }
+
+    // Agrega un token al final del flujo; inicio es el desplazamiento de su
+    // primer carácter en la entrada. Para los identificadores el valor es su id
+    // en el pool (si es negativo, el identificador se registra aquí) y para los
+    // errores, el ordinal de su CodigoDiagnostico
+    void agregar(TipoToken tipo, CharSequence lexema, int inicio, int linea, int columna, int valor) {
+        if (tamano == tipos.length) {
+            crecer();
+        }
+
+        int longitud = lexema.length();
+        int inicioTexto = longitudTexto;
+        if (tipo == TipoToken.IDENTIFICADOR) {
+            if (valor < 0) {
+                valor = simbolos.internar(lexema);
+            }
+        } else if (tipo.getLexemaFijo() == null) {
+            if (longitudTexto + longitud > texto.length) {
+                texto = Arrays.copyOf(texto, Math.max(texto.length * 2, longitudTexto + longitud));
+            }
+            for (int i = 0; i < longitud; i++) {
+                texto[longitudTexto++] = lexema.charAt(i);
+            }
+        } else {
+            longitud = tipo.getLexemaFijo().length();
+        }
+
+        tipos[tamano] = (byte) tipo.ordinal();
+        inicios[tamano] = inicio;
+        iniciosTexto[tamano] = inicioTexto;
+        longitudes[tamano] = longitud;
+        lineas[tamano] = linea;
+        columnas[tamano] = columna;
+        valores[tamano] = valor;
+        tamano++;
+    }
+
+    // Agrega los primeros tokens de otro flujo desplazando sus inicios y sus
+    // líneas y traduciendo sus ids de símbolo con la tabla dada (id local -> id
+    // en el pool de este flujo)
+    void anexar(TokenStream otro, int cantidad, int desplazamiento, int desplazamientoLineas, int[] idsSimbolo) {
+        while (tamano + cantidad > tipos.length) {
+            crecer();
+        }
+        if (longitudTexto + otro.longitudTexto > texto.length) {
+            texto = Arrays.copyOf(texto, Math.max(texto.length * 2, longitudTexto + otro.longitudTexto));
+        }
+        System.arraycopy(otro.texto, 0, texto, longitudTexto, otro.longitudTexto);
+
+        int identificador = TipoToken.IDENTIFICADOR.ordinal();
+        for (int i = 0; i < cantidad; i++) {
+            int j = tamano + i;
+            tipos[j] = otro.tipos[i];
+            inicios[j] = otro.inicios[i] + desplazamiento;
+            iniciosTexto[j] = otro.iniciosTexto[i] + longitudTexto;
+            longitudes[j] = otro.longitudes[i];
+            lineas[j] = otro.lineas[i] + desplazamientoLineas;
+            columnas[j] = otro.columnas[i];
+            valores[j] = otro.tipos[i] == identificador ? idsSimbolo[otro.valores[i]] : otro.valores[i];
+        }
+        tamano += cantidad;
+        longitudTexto += otro.longitudTexto;
+    }
+
+    // Duplica la capacidad de los arreglos de tokens
+    private void crecer() {
+        int capacidad = tipos.length * 2;
+        tipos = Arrays.copyOf(tipos, capacidad);
+        inicios = Arrays.copyOf(inicios, capacidad);
+        iniciosTexto = Arrays.copyOf(iniciosTexto, capacidad);
+        longitudes = Arrays.copyOf(longitudes, capacidad);
+        lineas = Arrays.copyOf(lineas, capacidad);
+        columnas = Arrays.copyOf(columnas, capacidad);
+        valores = Arrays.copyOf(valores, capacidad);
+    }
+
+    // Cantidad de tokens en el flujo
+    public int tamano() {
+        return tamano;
+    }
+
+    public TipoToken getTipo(int indice) {
+        return TIPOS[tipos[indice]];
+    }
+
+    // Desplazamiento del primer carácter del token en la entrada analizada, en
+    // caracteres UTF-16 (el EOF está en la longitud de la entrada)
+    public int getInicio(int indice) {
+        return inicios[indice];
+    }
+
+    public int getLongitud(int indice) {
+        return longitudes[indice];
+    }
+
+    public int getLinea(int indice) {
+        return lineas[indice];
+    }
+
+    public int getColumna(int indice) {
+        return columnas[indice];
+    }
+
+    // Valor entero de un token NUMERO (los identificadores guardan aquí su id de
+    // símbolo y los errores su código; 0 para los demás tipos)
+    public int getValor(int indice) {
+        return valores[indice];
+    }
+
+    // Id de símbolo de un token IDENTIFICADOR (-1 para los demás tipos)
+    public int getIdSimbolo(int indice) {
+        return getTipo(indice) == TipoToken.IDENTIFICADOR ? valores[indice] : -1;
+    }
+
+    public PoolSimbolos getPoolSimbolos() {
+        return simbolos;
+    }
+
+    // Código de diagnóstico de un token ERROR (null para los demás tipos)
+    public CodigoDiagnostico getCodigoError(int indice) {
+        return getTipo(indice) == TipoToken.ERROR ? CODIGOS[valores[indice]] : null;
+    }
+
+    // Mensaje de un token ERROR, formateado al pedirlo (null para los demás tipos)
+    public String getMensaje(int indice) {
+        CodigoDiagnostico codigo = getCodigoError(indice);
+        return codigo != null ? codigo.formatear(getLexema(indice)) : null;
+    }
+
+    // Materializa el lexema de un token
+    public String getLexema(int indice) {
+        TipoToken tipo = getTipo(indice);
+        if (tipo.getLexemaFijo() != null) {
+            return tipo.getLexemaFijo();
+        }
+        if (tipo == TipoToken.IDENTIFICADOR) {
+            return simbolos.getNombre(valores[indice]);
+        }
+        return new String(texto, iniciosTexto[indice], longitudes[indice]);
+    }
+
+    // Materializa un token completo, con el mismo valor que produciría siguienteToken()
+    public Token getToken(int indice) {
+        TipoToken tipo = getTipo(indice);
+        switch (tipo) {
+            case IDENTIFICADOR:
+                return new Token(getLexema(indice), tipo, lineas[indice], columnas[indice], null, valores[indice]);
+            case NUMERO:
+                return new Token(getLexema(indice), tipo, lineas[indice], columnas[indice], valores[indice]);
+            case ERROR:
+                return new Token(getLexema(indice), tipo, lineas[indice], columnas[indice], getMensaje(indice));
+            default:
+                return new Token(getLexema(indice), tipo, lineas[indice], columnas[indice]);
+        }
+    }
+}
@@ -5,9 +5,10 @@ import javax.swing.event.*;
 import javax.swing.table.*;
 import javax.swing.text.*;
 
+import analizador.diagnostico.ConsolaDiagnosticos;
 import analizador.lexico.AnalizadorLexico;
 import analizador.lexico.TipoToken;
-import analizador.lexico.Token;
+import analizador.lexico.TokenStream;
 import analizador.main.AnalizadorRobotUI.LineNumberPanel;
 import analizador.sintactico.AnalizadorSintactico;
 import analizador.sintactico.SimboloInfo;
@@ -38,7 +39,7 @@ public class AnalizadorRobotUI extends JFrame {
     private JLabel etiquetaEstado;
 
     // Modelos para las tablas
-    private DefaultTableModel modeloTokens;
+    private ModeloTablaTokens modeloTokens;
     private DefaultTableModel modeloSimbolos;
 
     // Estilos para el editor
@@ -87,9 +88,7 @@ public class AnalizadorRobotUI extends JFrame {
 
         // Inicializar las tablas
         // Tabla de tokens
-        modeloTokens = new DefaultTableModel(
-                new Object[][] {},
-                new String[] { "Lexema", "Tipo Token", "Línea", "Columna" });
+        modeloTokens = new ModeloTablaTokens();
         tablaTokens = new JTable(modeloTokens);
 
         // Área de errores en lugar de tabla
@@ -435,34 +434,26 @@ public class AnalizadorRobotUI extends JFrame {
             // Preparar el analizador léxico
             StringReader reader = new StringReader(editorCodigo.getText());
             AnalizadorLexico lexer = new AnalizadorLexico(reader);
+            lexer.setDiagnosticos(new ConsolaDiagnosticos());
 
             // Analizar el código
-            List<Token> tokens = lexer.analizar();
+            TokenStream tokens = lexer.analizarFlujo();
 
             // Mostrar tokens en la tabla
-            for (Token token : tokens) {
-                if (token.getTipo() != TipoToken.EOF) {
-                    modeloTokens.addRow(new Object[] {
-                            token.getLexema(),
-                            token.getTipo(),
-                            token.getLinea(),
-                            token.getColumna()
-                    });
-                }
-            }
+            modeloTokens.setFlujo(tokens);
 
             // Contar errores y resaltarlos en el editor
             int contadorErrores = 0;
-            for (Token token : tokens) {
-                if (token.getTipo() == TipoToken.ERROR) {
+            for (int i = 0; i < tokens.tamano(); i++) {
+                if (tokens.getTipo(i) == TipoToken.ERROR) {
                     contadorErrores++;
                     // Resaltar el error en el editor
-                    resaltarErrorEnEditor(token.getLinea(), token.getColumna(), token.getLexema().length());
+                    resaltarErrorEnEditor(tokens.getLinea(i), tokens.getColumna(i), tokens.getLongitud(i));
 
                     // Añadir al área de errores
-                    areaErrores.append("Error léxico en línea " + token.getLinea() +
-                            ", columna " + token.getColumna() + ": " +
-                            (token.getValor() != null ? token.getValor() : token.getLexema()) + "\n");
+                    areaErrores.append("Error léxico en línea " + tokens.getLinea(i) +
+                            ", columna " + tokens.getColumna(i) + ": " +
+                            (tokens.getMensaje(i) != null ? tokens.getMensaje(i) : tokens.getLexema(i)) + "\n");
                 }
             }
 
@@ -475,7 +466,7 @@ public class AnalizadorRobotUI extends JFrame {
 
             JOptionPane.showMessageDialog(
                     this,
-                    "Análisis léxico completado: " + (tokens.size() - 1) + " tokens encontrados" +
+                    "Análisis léxico completado: " + (tokens.tamano() - 1) + " tokens encontrados" +
                             (contadorErrores == 0 ? "." : " con " + contadorErrores + " errores."),
                     "Análisis Léxico",
                     contadorErrores == 0 ? JOptionPane.INFORMATION_MESSAGE : JOptionPane.WARNING_MESSAGE);
@@ -500,12 +491,11 @@ public class AnalizadorRobotUI extends JFrame {
             // Preparar el analizador léxico
             StringReader reader = new StringReader(editorCodigo.getText());
             AnalizadorLexico lexer = new AnalizadorLexico(reader);
+            lexer.setDiagnosticos(new ConsolaDiagnosticos());
 
-            // Obtener tokens
-            List<Token> tokens = lexer.analizar();
-
-            // Realizar análisis sintáctico
-            AnalizadorSintactico parser = new AnalizadorSintactico(tokens);
+            // Realizar análisis sintáctico, pidiendo los tokens al léxico sobre la marcha
+            AnalizadorSintactico parser = new AnalizadorSintactico(lexer);
+            parser.setDiagnosticos(new ConsolaDiagnosticos());
             parser.analizar();
 
             // Obtener errores y tabla de símbolos
@@ -569,9 +559,7 @@ public class AnalizadorRobotUI extends JFrame {
      * Limpia las tablas y el área de resultados
      */
     private void limpiarTablas() {
-        while (modeloTokens.getRowCount() > 0) {
-            modeloTokens.removeRow(0);
-        }
+        modeloTokens.setFlujo(null);
 
         areaErrores.setText("");
 
@@ -837,7 +825,7 @@ public class AnalizadorRobotUI extends JFrame {
                 modeloSimbolos.addRow(new Object[] {
                         simbolo.getNombre(),
                         simbolo.getTipo(),
-                        simbolo.getValor() != null ? simbolo.getValor().toString() : "",
+                        tablaSimbolo.describirEstadoRobot(simbolo.getIndice()),
                         0, // Sin parámetros para robots
                         "", // Sin rango para robots
                         simbolo.getLinea(),
@@ -846,8 +834,9 @@ public class AnalizadorRobotUI extends JFrame {
             }
         }
 
-        // Luego mostrar los métodos (pero solo una vez cada uno)
-        List<SimboloInfo> todosLosMetodos = tablaSimbolo.getMetodos();
+        // Luego mostrar los métodos (pero solo una vez cada uno); la tabla los
+        // entrega en una lista de solo lectura, así que se ordena una copia
+        List<SimboloInfo> todosLosMetodos = new ArrayList<>(tablaSimbolo.getMetodos());
 
         // Ordenar métodos por nombre para mantener consistencia
         Collections.sort(todosLosMetodos, Comparator.comparing(SimboloInfo::getNombre));
@@ -862,18 +851,10 @@ public class AnalizadorRobotUI extends JFrame {
 
             String rangoStr = "";
 
+            // El rango se toma de la tabla de símbolos; sin máximo se muestra abierto
             if (metodo.getNumParametros() > 0) {
-                if (metodo.getNombre().equals("repetir")) {
-                    rangoStr = "[1..∞)";
-                } else if (metodo.getNombre().equals("base")) {
-                    rangoStr = "[0..360]";
-                } else if (metodo.getNombre().equals("cuerpo")) {
-                    rangoStr = "[0..180]";
-                } else if (metodo.getNombre().equals("garra")) {
-                    rangoStr = "[0..90]";
-                } else if (metodo.getNombre().equals("velocidad")) {
-                    rangoStr = "[1..100]";
-                }
+                rangoStr = "[" + metodo.getMinValor() + ".." +
+                        (metodo.getMaxValor() == Integer.MAX_VALUE ? "∞)" : metodo.getMaxValor() + "]");
             }
 
             modeloSimbolos.addRow(new Object[] {
@@ -961,6 +942,59 @@ public class AnalizadorRobotUI extends JFrame {
         }
     }
 
+    /**
+     * Modelo de la tabla de tokens que lee directamente del flujo compacto,
+     * materializando los lexemas solo para las filas que se muestran
+     */
+    static class ModeloTablaTokens extends AbstractTableModel {
+        private static final long serialVersionUID = 1L;
+        private static final String[] COLUMNAS = { "Lexema", "Tipo Token", "Línea", "Columna" };
+        private TokenStream flujo;
+        private int filas;
+
+        public void setFlujo(TokenStream flujo) {
+            this.flujo = flujo;
+            this.filas = 0;
+            if (flujo != null) {
+                // El token EOF final no se muestra
+                filas = flujo.tamano();
+                if (filas > 0 && flujo.getTipo(filas - 1) == TipoToken.EOF) {
+                    filas--;
+                }
+            }
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return filas;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNAS.length;
+        }
+
+        @Override
+        public String getColumnName(int columna) {
+            return COLUMNAS[columna];
+        }
+
+        @Override
+        public Object getValueAt(int fila, int columna) {
+            switch (columna) {
+                case 0:
+                    return flujo.getLexema(fila);
+                case 1:
+                    return flujo.getTipo(fila);
+                case 2:
+                    return flujo.getLinea(fila);
+                default:
+                    return flujo.getColumna(fila);
+            }
+        }
+    }
+
     /**
      * Realiza el análisis léxico y sintáctico completo
      */
@@ -972,43 +1006,35 @@ public class AnalizadorRobotUI extends JFrame {
             // Preparar el analizador léxico
             StringReader reader = new StringReader(editorCodigo.getText());
             AnalizadorLexico lexer = new AnalizadorLexico(reader);
+            lexer.setDiagnosticos(new ConsolaDiagnosticos());
 
             // Analizar léxico
-            List<Token> tokens = lexer.analizar();
+            TokenStream tokens = lexer.analizarFlujo();
 
             // Mostrar tokens en la tabla
-            for (Token token : tokens) {
-                if (token.getTipo() != TipoToken.EOF) {
-                    modeloTokens.addRow(new Object[] {
-                            token.getLexema(),
-                            token.getTipo(),
-                            token.getLinea(),
-                            token.getColumna(),
-                            token.getValor() != null ? token.getValor().toString() : ""
-                    });
-                }
-            }
+            modeloTokens.setFlujo(tokens);
 
             // Contar errores léxicos
             int contadorErroresLexicos = 0;
-            for (Token token : tokens) {
-                if (token.getTipo() == TipoToken.ERROR) {
+            for (int i = 0; i < tokens.tamano(); i++) {
+                if (tokens.getTipo(i) == TipoToken.ERROR) {
                     contadorErroresLexicos++;
                     // Resaltar el error en el editor
-                    resaltarErrorEnEditor(token.getLinea(), token.getColumna(), token.getLexema().length());
+                    resaltarErrorEnEditor(tokens.getLinea(i), tokens.getColumna(i), tokens.getLongitud(i));
 
                     // Añadir al área de errores
                     if (contadorErroresLexicos == 1) {
                         areaErrores.append("ERRORES LÉXICOS:\n");
                     }
-                    areaErrores.append("Error léxico en línea " + token.getLinea() +
-                            ", columna " + token.getColumna() + ": " +
-                            (token.getValor() != null ? token.getValor() : token.getLexema()) + "\n");
+                    areaErrores.append("Error léxico en línea " + tokens.getLinea(i) +
+                            ", columna " + tokens.getColumna(i) + ": " +
+                            (tokens.getMensaje(i) != null ? tokens.getMensaje(i) : tokens.getLexema(i)) + "\n");
                 }
             }
 
             // Realizar análisis sintáctico
             AnalizadorSintactico parser = new AnalizadorSintactico(tokens);
+            parser.setDiagnosticos(new ConsolaDiagnosticos());
             parser.analizar();
 
             // Obtener errores y tabla de símbolos
@@ -1,37 +1,154 @@
 package analizador.sintactico;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import analizador.diagnostico.CodigoDiagnostico;
+import analizador.diagnostico.ColectorDiagnosticos;
+import analizador.diagnostico.DiagnosticSink;
+import analizador.diagnostico.TipoDiagnostico;
+import analizador.lexico.AnalizadorLexico;
 import analizador.lexico.TipoToken;
 import analizador.lexico.Token;
+import analizador.lexico.TokenStream;
 
 /**
- * Analizador sintáctico manual (descendente recursivo)
+ * Analizador sintáctico manual (descendente recursivo). Puede recibir los
+ * tokens ya reconocidos (lista o flujo compacto) o pedirlos uno a uno al
+ * analizador léxico, en cuyo caso todo el análisis usa memoria acotada.
+ * Los bloques repetir anidados se siguen en una pila explícita, no con
+ * recursión; no hay un modo recursivo aparte. Por omisión, más de 10000
+ * niveles se reportan como error en todas las formas de uso (ver
+ * setProfundidadMaxima).
  */
 public class AnalizadorSintactico {
+    // Tokens visibles a la vez: el actual y uno por delante (LL(2))
+    private static final int ANTICIPACION = 2;
+
+    // Anidamiento de bloques repetir a partir del cual se reporta un error
+    private static final int PROFUNDIDAD_MAXIMA = 10000;
+
     private List<Token> tokens;
+    private TokenStream flujo;
+    private AnalizadorLexico lexer;
+    private boolean fuenteAgotada;
     private int posicion;
     private Token tokenActual;
-    private List<String> errores;
+
+    // Búfer circular con el token actual (en primero) y los ya leídos por delante
+    private final Token[] ventana = new Token[ANTICIPACION];
+    private int primero;
+    private int cantidad;
+    private ColectorDiagnosticos errores;
+    private List<String> erroresSemanticos;
+    private DiagnosticSink diagnosticos;
     private TablaSimbolo tablaSimbolo;
 
+    // Árbol del programa (solo si se pidió con setConstruirArbol), el nodo
+    // de acción en construcción y el final del último token consumido
+    private ArbolPrograma arbol;
+    private int nodoAbierto;
+    private int lineaFinAnterior;
+    private int columnaFinAnterior;
+
+    // Pila explícita de bloques repetir abiertos (el nodo del árbol de cada uno,
+    // o -1), así el anidamiento no consume pila de Java
+    private int[] bloquesAbiertos;
+    private int profundidad;
+    private int profundidadMaxima;
+    // Ya se reportó un bloque por encima del límite y el anidamiento no ha
+    // vuelto a bajar de él
+    private boolean anidamientoReportado;
+
     public AnalizadorSintactico(List<Token> tokens) {
         this.tokens = tokens;
         this.posicion = 0;
-        this.errores = new ArrayList<>();
+        inicializar();
+    }
+
+    // Analiza directamente un flujo compacto de tokens; cada token se
+    // materializa solo mientras es el token actual
+    public AnalizadorSintactico(TokenStream flujo) {
+        this.flujo = flujo;
+        this.posicion = 0;
+        inicializar();
+    }
+
+    // Pide los tokens al analizador léxico a medida que los necesita, sin
+    // construir la lista completa (el léxico deja de conservar sus tokens)
+    public AnalizadorSintactico(AnalizadorLexico lexer) {
+        this.lexer = lexer;
+        this.lexer.setRetenerTokens(false);
+        this.fuenteAgotada = false;
+        inicializar();
+    }
+
+    // Estado común a todas las fuentes de tokens
+    private void inicializar() {
+        this.errores = new ColectorDiagnosticos();
+        this.erroresSemanticos = new ArrayList<>();
+        this.diagnosticos = null;
         this.tablaSimbolo = new TablaSimbolo();
+        this.bloquesAbiertos = new int[16];
+        this.profundidad = 0;
+        this.profundidadMaxima = PROFUNDIDAD_MAXIMA;
+        this.anidamientoReportado = false;
         avanzar();
     }
 
     // Avanza al siguiente token
     private void avanzar() {
-        if (posicion < tokens.size()) {
-            tokenActual = tokens.get(posicion++);
-        } else {
-            // Token EOF ficticio si nos pasamos
-            tokenActual = new Token("EOF", TipoToken.EOF, 0, 0);
+        if (arbol != null && tokenActual != null) {
+            lineaFinAnterior = tokenActual.getLinea();
+            columnaFinAnterior = tokenActual.getColumna() + tokenActual.getLexema().length();
+        }
+        if (cantidad > 0) {
+            ventana[primero] = null;
+            primero = (primero + 1) % ANTICIPACION;
+            cantidad--;
+        }
+        if (cantidad == 0) {
+            ventana[primero] = leerToken();
+            cantidad = 1;
+        }
+        tokenActual = ventana[primero];
+    }
+
+    // Consulta el token que está k posiciones por delante del actual sin consumirlo
+    private Token verToken(int k) {
+        if (k >= ANTICIPACION) {
+            throw new IllegalArgumentException("Anticipación máxima: " + (ANTICIPACION - 1) + " tokens");
+        }
+        while (cantidad <= k) {
+            ventana[(primero + cantidad) % ANTICIPACION] = leerToken();
+            cantidad++;
         }
+        return ventana[(primero + k) % ANTICIPACION];
+    }
+
+    // Obtiene el siguiente token de la fuente
+    private Token leerToken() {
+        if (lexer != null) {
+            // Mismos tokens que analizar() del léxico: se detiene tras el primer
+            // EOF o cuando la entrada ya se agotó
+            if (fuenteAgotada || lexer.finEntrada()) {
+                fuenteAgotada = true;
+                return new Token("EOF", TipoToken.EOF, 0, 0);
+            }
+            Token token = lexer.siguienteToken();
+            fuenteAgotada = token.getTipo() == TipoToken.EOF;
+            return token;
+        }
+        if (flujo != null) {
+            if (posicion < flujo.tamano()) {
+                return flujo.getToken(posicion++);
+            }
+        } else if (posicion < tokens.size()) {
+            return tokens.get(posicion++);
+        }
+        // Token EOF ficticio si nos pasamos
+        return new Token("EOF", TipoToken.EOF, 0, 0);
     }
 
     // Verifica si el token actual coincide con el tipo esperado
@@ -44,20 +161,22 @@ public class AnalizadorSintactico {
     }
 
     // Consume un token del tipo esperado o reporta un error
-    private void consumir(TipoToken tipo, String mensaje) {
+    private void consumir(TipoToken tipo, String esperado) {
         if (tokenActual.getTipo() == tipo) {
             avanzar();
         } else {
-            error(mensaje);
+            error(CodigoDiagnostico.SE_ESPERABA, esperado);
         }
     }
 
-    // Reporta un error sintáctico
-    private void error(String mensaje) {
-        String error = "Error sintáctico en línea " + tokenActual.getLinea() +
-                ", columna " + tokenActual.getColumna() + ": " + mensaje;
-        errores.add(error);
-        System.err.println(error);
+    // Reporta un error sintáctico; el mensaje no se formatea aquí
+    private void error(CodigoDiagnostico codigo, Object... argumentos) {
+        int linea = tokenActual.getLinea();
+        int columna = tokenActual.getColumna();
+        errores.reportar(TipoDiagnostico.SINTACTICO, codigo, linea, columna, argumentos);
+        if (diagnosticos != null) {
+            diagnosticos.reportar(TipoDiagnostico.SINTACTICO, codigo, linea, columna, argumentos);
+        }
     }
 
     // Analiza el programa completo
@@ -65,16 +184,24 @@ public class AnalizadorSintactico {
         programa();
 
         // Verificar errores semánticos adicionales
-        List<String> erroresSemanticos = tablaSimbolo.verificarErrores();
-        errores.addAll(erroresSemanticos);
+        erroresSemanticos.addAll(tablaSimbolo.verificarErrores());
     }
 
     // Reglas gramaticales
 
     // programa ::= instruccion*
+    // Las instrucciones de los bloques repetir se procesan en este mismo ciclo:
+    // abrir un bloque apila su nodo y un '}' (o el fin de archivo) cierra el de la cima
     private void programa() {
-        while (tokenActual.getTipo() != TipoToken.EOF) {
-            instruccion();
+        while (true) {
+            if (profundidad > 0 && (tokenActual.getTipo() == TipoToken.LLAVE_C ||
+                    tokenActual.getTipo() == TipoToken.EOF)) {
+                cerrarBloqueRepeticion();
+            } else if (tokenActual.getTipo() == TipoToken.EOF) {
+                break;
+            } else {
+                instruccion();
+            }
         }
     }
 
@@ -85,7 +212,7 @@ public class AnalizadorSintactico {
         } else if (tokenActual.getTipo() == TipoToken.IDENTIFICADOR) {
             accionRobot();
         } else {
-            error("Se esperaba 'Robot' o un identificador");
+            error(CodigoDiagnostico.SE_ESPERABA, "'Robot' o un identificador");
             // Modo de pánico: avanzar hasta encontrar algo reconocible
             while (tokenActual.getTipo() != TipoToken.EOF &&
                     tokenActual.getTipo() != TipoToken.ROBOT &&
@@ -97,7 +224,9 @@ public class AnalizadorSintactico {
 
     // declaracionRobot ::= ROBOT IDENTIFICADOR
     private void declaracionRobot() {
-        consumir(TipoToken.ROBOT, "Se esperaba 'Robot'");
+        int lineaDeclaracion = tokenActual.getLinea();
+        int columnaDeclaracion = tokenActual.getColumna();
+        consumir(TipoToken.ROBOT, "'Robot'");
 
         if (tokenActual.getTipo() == TipoToken.IDENTIFICADOR) {
             String nombreRobot = tokenActual.getLexema();
@@ -105,13 +234,22 @@ public class AnalizadorSintactico {
             int columna = tokenActual.getColumna();
 
             // Verificar si el robot ya existe
-            if (!tablaSimbolo.agregarSimbolo(nombreRobot, "ROBOT", linea, columna)) {
-                error("Robot '" + nombreRobot + "' ya declarado");
+            if (!tablaSimbolo.agregarSimbolo(tokenActual.getIdSimbolo(), nombreRobot, "ROBOT", linea, columna)) {
+                error(CodigoDiagnostico.ROBOT_YA_DECLARADO, nombreRobot);
+            }
+
+            int nodo = -1;
+            if (arbol != null) {
+                int robot = tablaSimbolo.getIndiceRobot(nombreRobot);
+                arbol.registrarRobot(robot, nombreRobot);
+                nodo = arbol.abrir(TipoNodo.DECLARACION_ROBOT, TipoToken.ROBOT, robot, lineaDeclaracion,
+                        columnaDeclaracion);
             }
 
             avanzar();
+            cerrarNodo(nodo);
         } else {
-            error("Se esperaba un identificador después de 'Robot'");
+            error(CodigoDiagnostico.SE_ESPERABA, "un identificador después de 'Robot'");
         }
     }
 
@@ -119,10 +257,13 @@ public class AnalizadorSintactico {
     // bloqueRepeticion)
     private void accionRobot() {
         String idRobot = tokenActual.getLexema();
+        int linea = tokenActual.getLinea();
+        int columna = tokenActual.getColumna();
+        int robot = indiceRobot();
 
         // Verificar si el robot existe
-        if (!tablaSimbolo.simboloExiste(idRobot)) {
-            error("Robot '" + idRobot + "' no declarado");
+        if (!robotDeclarado()) {
+            error(CodigoDiagnostico.ROBOT_NO_DECLARADO, idRobot);
         }
 
         avanzar(); // Consumir el identificador
@@ -134,47 +275,87 @@ public class AnalizadorSintactico {
                     tokenActual.getTipo() == TipoToken.GARRA ||
                     tokenActual.getTipo() == TipoToken.VELOCIDAD) {
 
-                // Puede ser asignación o llamada a método con parámetros
-                TipoToken tipoPropiedad = tokenActual.getTipo();
-                avanzar(); // Consumir el nombre de propiedad
+                // Puede ser asignación o llamada a método con parámetros; lo
+                // decide el token que sigue a la propiedad
+                TipoToken siguiente = verToken(1).getTipo();
 
-                if (tokenActual.getTipo() == TipoToken.IGUAL) {
+                if (siguiente == TipoToken.IGUAL) {
                     // Es una asignación
-                    retroceder(); // Retroceder para procesar correctamente
-                    asignacionParametro();
-                } else if (tokenActual.getTipo() == TipoToken.PARENTESIS_A) {
+                    int nodo = abrirNodo(TipoNodo.ASIGNACION, robot, linea, columna);
+                    asignacionParametro(robot);
+                    cerrarNodo(nodo);
+                } else if (siguiente == TipoToken.PARENTESIS_A) {
                     // Es una llamada a método con parámetros
-                    retroceder(); // Retroceder para procesar correctamente
-                    llamadaMetodo();
+                    int nodo = abrirNodo(TipoNodo.LLAMADA, robot, linea, columna);
+                    llamadaMetodo(robot);
+                    cerrarNodo(nodo);
                 } else {
-                    error("Se esperaba '=' o '(' después de la propiedad");
+                    avanzar(); // Consumir el nombre de propiedad
+                    error(CodigoDiagnostico.SE_ESPERABA, "'=' o '(' después de la propiedad");
                 }
             } else if (tokenActual.getTipo() == TipoToken.INICIAR ||
                     tokenActual.getTipo() == TipoToken.DETENER ||
                     tokenActual.getTipo() == TipoToken.ABRIR_GARRA ||
                     tokenActual.getTipo() == TipoToken.CERRAR_GARRA) {
-                llamadaMetodo();
+                int nodo = abrirNodo(TipoNodo.LLAMADA, robot, linea, columna);
+                llamadaMetodo(robot);
+                cerrarNodo(nodo);
             } else if (tokenActual.getTipo() == TipoToken.REPETIR) {
-                bloqueRepeticion();
+                abrirBloqueRepeticion(abrirNodo(TipoNodo.REPETIR, robot, linea, columna));
             } else {
-                error("Se esperaba un método o propiedad válida después del punto");
+                error(CodigoDiagnostico.SE_ESPERABA, "un método o propiedad válida después del punto");
                 avanzar(); // Consumir el token no reconocido
             }
         } else {
-            error("Se esperaba un punto después del identificador de robot");
+            error(CodigoDiagnostico.SE_ESPERABA, "un punto después del identificador de robot");
+        }
+    }
+
+    // Verifica si el identificador actual es un robot declarado; los tokens del
+    // léxico se resuelven por id y solo los tokens sin id se buscan por nombre
+    private boolean robotDeclarado() {
+        int idSimbolo = tokenActual.getIdSimbolo();
+        if (idSimbolo >= 0) {
+            return tablaSimbolo.simboloExiste(idSimbolo);
+        }
+        return tablaSimbolo.simboloExiste(tokenActual.getLexema());
+    }
+
+    // Índice de declaración del robot del identificador actual (-1 si no está declarado)
+    private int indiceRobot() {
+        int idSimbolo = tokenActual.getIdSimbolo();
+        if (idSimbolo >= 0) {
+            return tablaSimbolo.getIndiceRobot(idSimbolo);
+        }
+        return tablaSimbolo.getIndiceRobot(tokenActual.getLexema());
+    }
+
+    // Abre en el árbol el nodo de la acción cuyo método o propiedad es el token
+    // actual; devuelve -1 si no se está construyendo el árbol
+    private int abrirNodo(TipoNodo tipo, int robot, int linea, int columna) {
+        if (arbol == null) {
+            return -1;
+        }
+        nodoAbierto = arbol.abrir(tipo, tokenActual.getTipo(), robot, linea, columna);
+        return nodoAbierto;
+    }
+
+    // Guarda el valor numérico de la acción en construcción
+    private void asignarValor(int valor) {
+        if (arbol != null) {
+            arbol.setValor(nodoAbierto, valor);
         }
     }
 
-    // Retrocede una posición en la lista de tokens
-    private void retroceder() {
-        if (posicion > 1) { // Asegurarse de no retroceder antes del inicio
-            posicion -= 2; // Retroceder 2 porque avanzar() incrementa la posición
-            avanzar(); // Actualizar tokenActual
+    // Cierra un nodo al final del último token consumido
+    private void cerrarNodo(int nodo) {
+        if (nodo >= 0) {
+            arbol.cerrar(nodo, lineaFinAnterior, columnaFinAnterior);
         }
     }
 
     // asignacionParametro ::= (BASE | CUERPO | GARRA | VELOCIDAD) IGUAL NUMERO
-    private void asignacionParametro() {
+    private void asignacionParametro(int robot) {
         TipoToken tipoPropiedad = tokenActual.getTipo();
         String nombrePropiedad = tokenActual.getLexema(); // Guardar el nombre de la propiedad
         int linea = tokenActual.getLinea();
@@ -183,54 +364,37 @@ public class AnalizadorSintactico {
 
         if (coincidir(TipoToken.IGUAL)) {
             if (tokenActual.getTipo() == TipoToken.NUMERO) {
-                int valor = (int) tokenActual.getValor();
+                int valor = tokenActual.getValorEntero();
+                asignarValor(valor);
 
-                // Actualizar en la tabla de símbolos con línea y columna
-                tablaSimbolo.actualizarMetodo(nombrePropiedad, valor, linea, columna);
+                // Actualizar en la tabla de símbolos con valor, línea y columna
+                tablaSimbolo.actualizarMetodo(tipoPropiedad, valor, linea, columna);
+                tablaSimbolo.actualizarPropiedad(robot, tipoPropiedad, valor, linea, columna);
 
-                // AÑADIR AQUÍ: Almacenar el valor en la tabla de símbolos
-                SimboloInfo metodoInfo = tablaSimbolo.getMetodoInfo(nombrePropiedad);
-                if (metodoInfo != null) {
-                    metodoInfo.setValor(valor); // Guardar el valor asignado
-                }
-
-                // Validar rangos según el tipo de propiedad
-                switch (tipoPropiedad) {
-                    case BASE:
-                        if (valor < 0 || valor > 360) {
-                            error("Valor fuera de rango para 'base': " + valor + " (rango permitido: [0..360])");
-                        }
-                        break;
-                    case CUERPO:
-                        if (valor < 0 || valor > 180) {
-                            error("Valor fuera de rango para 'cuerpo': " + valor + " (rango permitido: [0..180])");
-                        }
-                        break;
-                    case GARRA:
-                        if (valor < 0 || valor > 90) {
-                            error("Valor fuera de rango para 'garra': " + valor + " (rango permitido: [0..90])");
-                        }
-                        break;
-                    case VELOCIDAD:
-                        if (valor < 1 || valor > 100) {
-                            error("Valor fuera de rango para 'velocidad': " + valor + " (rango permitido: [1..100])");
-                        }
-                        break;
-                }
+                // Validar el rango con la tabla de la tabla de símbolos
+                validarRango(tipoPropiedad, nombrePropiedad, valor);
 
                 avanzar(); // Consumir el número
             } else {
-                error("Se esperaba un número");
+                error(CodigoDiagnostico.SE_ESPERABA, "un número");
             }
         } else {
-            error("Se esperaba '='");
+            error(CodigoDiagnostico.SE_ESPERABA, "'='");
+        }
+    }
+
+    // Reporta el valor si está fuera del rango registrado para el método
+    private void validarRango(TipoToken tipo, String nombre, int valor) {
+        if (!tablaSimbolo.validarRango(tipo, valor)) {
+            error(CodigoDiagnostico.VALOR_FUERA_DE_RANGO, nombre, valor, tablaSimbolo.getMinimo(tipo),
+                    tablaSimbolo.getMaximo(tipo));
         }
     }
 
     // llamadaMetodo ::= (INICIAR | DETENER) |
     // (BASE | CUERPO | GARRA | VELOCIDAD) PARENTESIS_A NUMERO PARENTESIS_C |
     // (ABRIR_GARRA | CERRAR_GARRA) PARENTESIS_A PARENTESIS_C
-    private void llamadaMetodo() {
+    private void llamadaMetodo(int robot) {
         TipoToken tipoMetodo = tokenActual.getTipo();
         String nombreMetodo = tokenActual.getLexema(); // Guardar el nombre del método
         int linea = tokenActual.getLinea();
@@ -240,7 +404,7 @@ public class AnalizadorSintactico {
         // Métodos sin parámetros
         if (tipoMetodo == TipoToken.INICIAR || tipoMetodo == TipoToken.DETENER) {
             // Actualizar posición aunque no tenga parámetros
-            tablaSimbolo.actualizarMetodo(nombreMetodo, null, linea, columna);
+            tablaSimbolo.actualizarMetodo(tipoMetodo, null, linea, columna);
             return;
         }
 
@@ -248,91 +412,123 @@ public class AnalizadorSintactico {
         if (coincidir(TipoToken.PARENTESIS_A)) {
             if (tipoMetodo == TipoToken.ABRIR_GARRA || tipoMetodo == TipoToken.CERRAR_GARRA) {
                 // Actualizar posición
-                tablaSimbolo.actualizarMetodo(nombreMetodo, null, linea, columna);
-                consumir(TipoToken.PARENTESIS_C, "Se esperaba ')'");
+                tablaSimbolo.actualizarMetodo(tipoMetodo, null, linea, columna);
+                consumir(TipoToken.PARENTESIS_C, "')'");
             } else if (tokenActual.getTipo() == TipoToken.NUMERO) {
                 // Métodos con argumentos numéricos
-                int valor = (int) tokenActual.getValor();
+                int valor = tokenActual.getValorEntero();
+                asignarValor(valor);
 
                 // Actualizar valor y posición
-                tablaSimbolo.actualizarMetodo(nombreMetodo, valor, linea, columna);
+                tablaSimbolo.actualizarMetodo(tipoMetodo, valor, linea, columna);
+                tablaSimbolo.actualizarPropiedad(robot, tipoMetodo, valor, linea, columna);
 
-                // AÑADIR AQUÍ: Almacenar el valor en la tabla de símbolos
-                SimboloInfo metodoInfo = tablaSimbolo.getMetodoInfo(nombreMetodo);
-                if (metodoInfo != null) {
-                    metodoInfo.setValor(valor); // Guardar el valor pasado al método
-                }
-
-                // Validar rangos según el tipo de método
-                switch (tipoMetodo) {
-                    case BASE:
-                        if (valor < 0 || valor > 360) {
-                            error("Valor fuera de rango para 'base': " + valor + " (rango permitido: [0..360])");
-                        }
-                        break;
-                    case CUERPO:
-                        if (valor < 0 || valor > 180) {
-                            error("Valor fuera de rango para 'cuerpo': " + valor + " (rango permitido: [0..180])");
-                        }
-                        break;
-                    case GARRA:
-                        if (valor < 0 || valor > 90) {
-                            error("Valor fuera de rango para 'garra': " + valor + " (rango permitido: [0..90])");
-                        }
-                        break;
-                    case VELOCIDAD:
-                        if (valor < 1 || valor > 100) {
-                            error("Valor fuera de rango para 'velocidad': " + valor + " (rango permitido: [1..100])");
-                        }
-                        break;
-                }
+                // Validar el rango con la tabla de la tabla de símbolos
+                validarRango(tipoMetodo, nombreMetodo, valor);
 
                 avanzar(); // Consumir el número
-                consumir(TipoToken.PARENTESIS_C, "Se esperaba ')'");
+                consumir(TipoToken.PARENTESIS_C, "')'");
             } else {
-                error("Se esperaba un número");
+                error(CodigoDiagnostico.SE_ESPERABA, "un número");
                 // Intentar recuperarse
                 if (tokenActual.getTipo() != TipoToken.PARENTESIS_C) {
                     avanzar(); // Consumir lo que sea que esté ahí
                 }
-                consumir(TipoToken.PARENTESIS_C, "Se esperaba ')'");
+                consumir(TipoToken.PARENTESIS_C, "')'");
             }
         } else if (tipoMetodo != TipoToken.INICIAR && tipoMetodo != TipoToken.DETENER) {
-            error("Se esperaba '('");
+            error(CodigoDiagnostico.SE_ESPERABA, "'('");
         }
     }
 
     // bloqueRepeticion ::= REPETIR PARENTESIS_A NUMERO PARENTESIS_C LLAVE_A
     // instruccion* LLAVE_C
-    private void bloqueRepeticion() {
-        consumir(TipoToken.REPETIR, "Se esperaba 'repetir'");
+    // Analiza la cabecera del bloque y lo deja abierto en la pila; programa()
+    // procesa su cuerpo y lo cierra
+    private void abrirBloqueRepeticion(int nodo) {
+        if (profundidad >= profundidadMaxima && !anidamientoReportado) {
+            error(CodigoDiagnostico.ANIDAMIENTO_EXCESIVO, profundidadMaxima);
+            anidamientoReportado = true;
+        }
+        consumir(TipoToken.REPETIR, "'repetir'");
 
-        consumir(TipoToken.PARENTESIS_A, "Se esperaba '('");
+        consumir(TipoToken.PARENTESIS_A, "'('");
 
         if (tokenActual.getTipo() == TipoToken.NUMERO) {
-            int valor = (int) tokenActual.getValor();
-            if (valor <= 0) {
-                error("El número de repeticiones debe ser positivo, se encontró: " + valor);
+            int valor = tokenActual.getValorEntero();
+            asignarValor(valor);
+            if (!tablaSimbolo.validarRango(TipoToken.REPETIR, valor)) {
+                error(CodigoDiagnostico.REPETICIONES_NO_POSITIVAS, valor);
             }
             avanzar(); // Consumir el número
         } else {
-            error("Se esperaba un número");
+            error(CodigoDiagnostico.SE_ESPERABA, "un número");
         }
 
-        consumir(TipoToken.PARENTESIS_C, "Se esperaba ')'");
-        consumir(TipoToken.LLAVE_A, "Se esperaba '{'");
+        consumir(TipoToken.PARENTESIS_C, "')'");
+        consumir(TipoToken.LLAVE_A, "'{'");
 
-        // Procesar instrucciones dentro del bloque de repetición
-        while (tokenActual.getTipo() != TipoToken.LLAVE_C &&
-                tokenActual.getTipo() != TipoToken.EOF) {
-            instruccion();
+        if (profundidad == bloquesAbiertos.length) {
+            bloquesAbiertos = Arrays.copyOf(bloquesAbiertos, profundidad * 2);
         }
+        bloquesAbiertos[profundidad++] = nodo;
+    }
 
-        consumir(TipoToken.LLAVE_C, "Se esperaba '}'");
+    // Cierra el bloque repetir de la cima de la pila
+    private void cerrarBloqueRepeticion() {
+        consumir(TipoToken.LLAVE_C, "'}'");
+        cerrarNodo(bloquesAbiertos[--profundidad]);
+        if (profundidad < profundidadMaxima) {
+            anidamientoReportado = false;
+        }
+    }
+
+    // Destino adicional de los errores sintácticos, además de los que se
+    // conservan para getErrores(); por omisión ninguno, igual que en los
+    // analizadores léxicos, así que nada se escribe en System.err salvo que se
+    // pase un ConsolaDiagnosticos
+    public void setDiagnosticos(DiagnosticSink diagnosticos) {
+        this.diagnosticos = diagnosticos;
+    }
+
+    // Destino adicional configurado con setDiagnosticos (null si no hay)
+    public DiagnosticSink getDiagnosticos() {
+        return diagnosticos;
+    }
+
+    // Anidamiento máximo de bloques repetir (por omisión 10000, para todos los
+    // que usan este analizador, incluidos la interfaz y Parser); el primer
+    // bloque que lo supera se reporta como error y el análisis continúa. Los
+    // demás bloques por encima del límite no se reportan hasta que el
+    // anidamiento vuelve a bajar de él. Un límite mayor solo cuesta memoria
+    // para la pila de bloques, no pila de Java
+    public void setProfundidadMaxima(int profundidadMaxima) {
+        if (profundidadMaxima < 1) {
+            throw new IllegalArgumentException("La profundidad máxima debe ser positiva: " + profundidadMaxima);
+        }
+        this.profundidadMaxima = profundidadMaxima;
+    }
+
+    // Activa la construcción del árbol del programa; debe llamarse antes de analizar()
+    public void setConstruirArbol(boolean construirArbol) {
+        this.arbol = construirArbol ? new ArbolPrograma() : null;
+    }
+
+    // Árbol del programa analizado, o null si no se pidió construirlo
+    public ArbolPrograma getArbol() {
+        return arbol;
     }
 
     // Getters
+    // Textos de todos los errores, formateados al pedirlos
     public List<String> getErrores() {
+        List<String> mensajes = errores.getMensajes();
+        mensajes.addAll(erroresSemanticos);
+        return mensajes;
+    }
+
+    // Errores sintácticos estructurados, sin formatear
+    public ColectorDiagnosticos getErroresEstructurados() {
         return errores;
     }
 
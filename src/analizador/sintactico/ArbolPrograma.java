@@ -0,0 +1,192 @@
+package analizador.sintactico;
+
+import java.util.Arrays;
+
+import analizador.lexico.TipoToken;
+
+/**
+ * Árbol sintáctico de un programa guardado en arreglos primitivos paralelos.
+ * Los nodos se numeran en preorden: los hijos de un nodo ocupan los índices
+ * (nodo, getFin(nodo)) y el siguiente hermano empieza en getFin(nodo). Los
+ * nodos de primer nivel se recorren desde 0 saltando de fin en fin.
+ */
+public class ArbolPrograma {
+    private static final int CAPACIDAD_INICIAL = 64;
+    private static final TipoNodo[] TIPOS_NODO = TipoNodo.values();
+    private static final TipoToken[] TIPOS_TOKEN = TipoToken.values();
+
+    private byte[] tipos;
+    private byte[] miembros;
+    private int[] robots;
+    private int[] valores;
+    private int[] fines;
+    private int[] lineas;
+    private int[] columnas;
+    private int[] lineasFin;
+    private int[] columnasFin;
+    private int tamano;
+
+    // Nombres de los robots indexados por su orden de declaración
+    private String[] nombresRobot;
+    private int cantidadRobots;
+
+    public ArbolPrograma() {
+        this.tipos = new byte[CAPACIDAD_INICIAL];
+        this.miembros = new byte[CAPACIDAD_INICIAL];
+        this.robots = new int[CAPACIDAD_INICIAL];
+        this.valores = new int[CAPACIDAD_INICIAL];
+        this.fines = new int[CAPACIDAD_INICIAL];
+        this.lineas = new int[CAPACIDAD_INICIAL];
+        this.columnas = new int[CAPACIDAD_INICIAL];
+        this.lineasFin = new int[CAPACIDAD_INICIAL];
+        this.columnasFin = new int[CAPACIDAD_INICIAL];
+        this.tamano = 0;
+        this.nombresRobot = new String[8];
+        this.cantidadRobots = 0;
+    }
+
+    // Abre un nodo en la posición inicial dada y devuelve su índice; sus hijos
+    // son los nodos que se abran hasta llamar a cerrar()
+    int abrir(TipoNodo tipo, TipoToken miembro, int robot, int linea, int columna) {
+        if (tamano == tipos.length) {
+            crecer();
+        }
+        int nodo = tamano++;
+        tipos[nodo] = (byte) tipo.ordinal();
+        miembros[nodo] = (byte) miembro.ordinal();
+        robots[nodo] = robot;
+        valores[nodo] = 0;
+        fines[nodo] = tamano;
+        lineas[nodo] = linea;
+        columnas[nodo] = columna;
+        return nodo;
+    }
+
+    // Cierra un nodo: su subárbol termina en el último nodo agregado y su texto
+    // en la posición dada (exclusiva)
+    void cerrar(int nodo, int lineaFin, int columnaFin) {
+        fines[nodo] = tamano;
+        lineasFin[nodo] = lineaFin;
+        columnasFin[nodo] = columnaFin;
+    }
+
+    void setValor(int nodo, int valor) {
+        valores[nodo] = valor;
+    }
+
+    // Registra el nombre de un robot la primera vez que se declara
+    void registrarRobot(int robot, String nombre) {
+        if (robot >= nombresRobot.length) {
+            nombresRobot = Arrays.copyOf(nombresRobot, Math.max(nombresRobot.length * 2, robot + 1));
+        }
+        if (nombresRobot[robot] == null) {
+            nombresRobot[robot] = nombre;
+            cantidadRobots = Math.max(cantidadRobots, robot + 1);
+        }
+    }
+
+    // Duplica la capacidad de los arreglos de nodos
+    private void crecer() {
+        int capacidad = tipos.length * 2;
+        tipos = Arrays.copyOf(tipos, capacidad);
+        miembros = Arrays.copyOf(miembros, capacidad);
+        robots = Arrays.copyOf(robots, capacidad);
+        valores = Arrays.copyOf(valores, capacidad);
+        fines = Arrays.copyOf(fines, capacidad);
+        lineas = Arrays.copyOf(lineas, capacidad);
+        columnas = Arrays.copyOf(columnas, capacidad);
+        lineasFin = Arrays.copyOf(lineasFin, capacidad);
+        columnasFin = Arrays.copyOf(columnasFin, capacidad);
+    }
+
+    // Cantidad de nodos del árbol
+    public int tamano() {
+        return tamano;
+    }
+
+    public TipoNodo getTipo(int nodo) {
+        return TIPOS_NODO[tipos[nodo]];
+    }
+
+    // Propiedad o método del nodo (ROBOT en las declaraciones, REPETIR en los bloques)
+    public TipoToken getMiembro(int nodo) {
+        return TIPOS_TOKEN[miembros[nodo]];
+    }
+
+    // Índice de declaración del robot del nodo, o -1 si el robot no está declarado
+    public int getRobot(int nodo) {
+        return robots[nodo];
+    }
+
+    // Valor numérico del nodo: el asignado, el argumento de la llamada o las
+    // repeticiones del bloque (0 si no tiene)
+    public int getValor(int nodo) {
+        return valores[nodo];
+    }
+
+    // Índice siguiente al último nodo del subárbol
+    public int getFin(int nodo) {
+        return fines[nodo];
+    }
+
+    // Indica si el nodo tiene hijos (solo los bloques repetir)
+    public boolean tieneHijos(int nodo) {
+        return fines[nodo] > nodo + 1;
+    }
+
+    public int getLinea(int nodo) {
+        return lineas[nodo];
+    }
+
+    public int getColumna(int nodo) {
+        return columnas[nodo];
+    }
+
+    // Línea del final del texto del nodo
+    public int getLineaFin(int nodo) {
+        return lineasFin[nodo];
+    }
+
+    // Columna siguiente al último carácter del texto del nodo
+    public int getColumnaFin(int nodo) {
+        return columnasFin[nodo];
+    }
+
+    // Cantidad de robots declarados
+    public int getCantidadRobots() {
+        return cantidadRobots;
+    }
+
+    public String getNombreRobot(int robot) {
+        return nombresRobot[robot];
+    }
+
+    // Representación indentada del árbol, un nodo por línea
+    @Override
+    public String toString() {
+        StringBuilder texto = new StringBuilder();
+        int[] finesAbiertos = new int[16];
+        int profundidad = 0;
+        for (int nodo = 0; nodo < tamano; nodo++) {
+            while (profundidad > 0 && finesAbiertos[profundidad - 1] <= nodo) {
+                profundidad--;
+            }
+            for (int i = 0; i < profundidad; i++) {
+                texto.append("  ");
+            }
+            texto.append(getTipo(nodo)).append(' ')
+                    .append(robots[nodo] >= 0 ? nombresRobot[robots[nodo]] : "?").append(' ')
+                    .append(getMiembro(nodo).getLexemaFijo()).append(' ')
+                    .append(valores[nodo])
+                    .append(" (").append(lineas[nodo]).append(',').append(columnas[nodo])
+                    .append(")-(").append(lineasFin[nodo]).append(',').append(columnasFin[nodo]).append(")\n");
+            if (tieneHijos(nodo)) {
+                if (profundidad == finesAbiertos.length) {
+                    finesAbiertos = Arrays.copyOf(finesAbiertos, profundidad * 2);
+                }
+                finesAbiertos[profundidad++] = fines[nodo];
+            }
+        }
+        return texto.toString();
+    }
+}
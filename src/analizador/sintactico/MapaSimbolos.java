@@ -0,0 +1,77 @@
+package analizador.sintactico;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+import analizador.lexico.PoolSimbolos;
+
+/**
+ * Mapa de nombre a SimboloInfo para la tabla de símbolos. Los nombres se
+ * registran en un PoolSimbolos, que les da ids densos en orden de inserción,
+ * y cada símbolo se guarda en la posición de su id. No admite borrados, así
+ * que recorrerlo no necesita copiar nada: la vista de solo lectura lee
+ * directamente el arreglo.
+ */
+final class MapaSimbolos {
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private final PoolSimbolos nombres;
+    // Símbolos indexados por el id de su nombre
+    private SimboloInfo[] valores;
+    private int tamano;
+
+    private final List<SimboloInfo> vista;
+
+    MapaSimbolos() {
+        this.nombres = new PoolSimbolos();
+        this.valores = new SimboloInfo[CAPACIDAD_INICIAL];
+        this.tamano = 0;
+        this.vista = new Vista();
+    }
+
+    // Agrega el símbolo si el nombre no existe; devuelve false si ya existía
+    boolean agregar(String nombre, SimboloInfo valor) {
+        // Un nombre nuevo recibe el siguiente id; uno conocido, el suyo
+        if (nombres.internar(nombre) < tamano) {
+            return false;
+        }
+        if (tamano == valores.length) {
+            valores = Arrays.copyOf(valores, tamano * 2);
+        }
+        valores[tamano++] = valor;
+        return true;
+    }
+
+    // Devuelve el símbolo con el nombre dado, o null si no existe
+    SimboloInfo get(String nombre) {
+        int id = nombres.buscar(nombre);
+        return id >= 0 ? valores[id] : null;
+    }
+
+    boolean contiene(String nombre) {
+        return nombres.buscar(nombre) >= 0;
+    }
+
+    // Vista de solo lectura de los símbolos en orden de inserción; refleja los
+    // símbolos que se agreguen después
+    List<SimboloInfo> vista() {
+        return vista;
+    }
+
+    private final class Vista extends AbstractList<SimboloInfo> implements RandomAccess {
+        @Override
+        public SimboloInfo get(int indice) {
+            if (indice < 0 || indice >= tamano) {
+                throw new IndexOutOfBoundsException("Índice: " + indice + ", tamaño: " + tamano);
+            }
+            return valores[indice];
+        }
+
+        @Override
+        public int size() {
+            return tamano;
+        }
+    }
+}
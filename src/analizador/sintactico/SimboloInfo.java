@@ -12,6 +12,8 @@ public class SimboloInfo {
     private int maxValor;
     private int linea;
     private int columna;
+    // Orden de declaración de un robot (0, 1, 2...); -1 para los demás símbolos
+    private int indice;
 
     public SimboloInfo(String nombre, String tipo) {
         this.nombre = nombre;
@@ -22,6 +24,7 @@ public class SimboloInfo {
         this.maxValor = 0;
         this.linea = 0;
         this.columna = 0;
+        this.indice = -1;
     }
 
     public SimboloInfo(String nombre, String tipo, Object valor, int numParametros, int minValor, int maxValor) {
@@ -33,6 +36,7 @@ public class SimboloInfo {
         this.maxValor = maxValor;
         this.linea = 0;
         this.columna = 0;
+        this.indice = -1;
     }
 
     public SimboloInfo(String nombre, String tipo, int linea, int columna) {
@@ -44,6 +48,7 @@ public class SimboloInfo {
         this.maxValor = 0;
         this.linea = linea;
         this.columna = columna;
+        this.indice = -1;
     }
 
     // Getters
@@ -79,6 +84,10 @@ public class SimboloInfo {
         return columna;
     }
 
+    public int getIndice() {
+        return indice;
+    }
+
     // Setters
     public void setValor(Object valor) {
         this.valor = valor;
@@ -92,6 +101,10 @@ public class SimboloInfo {
         this.columna = columna;
     }
 
+    public void setIndice(int indice) {
+        this.indice = indice;
+    }
+
     @Override
     public String toString() {
         return "SimboloInfo[nombre=" + nombre + ", tipo=" + tipo + ", valor=" + valor +
@@ -1,34 +1,83 @@
 package analizador.sintactico;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import analizador.lexico.TipoToken;
+
 /**
  * Tabla de símbolos para el analizador
  */
 public class TablaSimbolo {
-    private Map<String, SimboloInfo> simbolos;
-    private Map<String, SimboloInfo> metodos;
+    // Propiedades con estado propio en cada robot, en el orden de los arreglos de estado
+    private static final TipoToken[] PROPIEDADES = {
+            TipoToken.BASE, TipoToken.CUERPO, TipoToken.GARRA, TipoToken.VELOCIDAD };
+    private static final int[] PROPIEDAD_POR_TIPO = new int[TipoToken.values().length];
+
+    static {
+        Arrays.fill(PROPIEDAD_POR_TIPO, -1);
+        for (int i = 0; i < PROPIEDADES.length; i++) {
+            PROPIEDAD_POR_TIPO[PROPIEDADES[i].ordinal()] = i;
+        }
+    }
+
+    // Símbolos y métodos por nombre, en orden de inserción
+    private MapaSimbolos simbolos;
+    private MapaSimbolos metodos;
+
+    // Símbolos indexados por el id que les asignó el PoolSimbolos del léxico
+    private SimboloInfo[] simbolosPorId;
+
+    // Cantidad de robots declarados; cada robot recibe su orden de declaración como índice
+    private int cantidadRobots;
+
+    // Métodos y rangos permitidos indexados por el ordinal de su TipoToken; los
+    // métodos sin parámetros admiten cualquier valor
+    private SimboloInfo[] metodosPorTipo;
+    private int[] minimos;
+    private int[] maximos;
+
+    // Estado de cada robot: si escribió cada propiedad, su último valor y la
+    // posición de esa escritura, en la posición robot * PROPIEDADES.length +
+    // propiedad
+    private boolean[] escritasRobot;
+    private int[] valoresRobot;
+    private int[] lineasRobot;
+    private int[] columnasRobot;
 
     public TablaSimbolo() {
-        simbolos = new HashMap<>();
-        metodos = new HashMap<>();
+        simbolos = new MapaSimbolos();
+        metodos = new MapaSimbolos();
+        simbolosPorId = new SimboloInfo[16];
+        int cantidadTipos = TipoToken.values().length;
+        metodosPorTipo = new SimboloInfo[cantidadTipos];
+        minimos = new int[cantidadTipos];
+        maximos = new int[cantidadTipos];
+        Arrays.fill(minimos, Integer.MIN_VALUE);
+        Arrays.fill(maximos, Integer.MAX_VALUE);
+        escritasRobot = new boolean[16 * PROPIEDADES.length];
+        valoresRobot = new int[16 * PROPIEDADES.length];
+        lineasRobot = new int[16 * PROPIEDADES.length];
+        columnasRobot = new int[16 * PROPIEDADES.length];
 
         // Agregar métodos predefinidos con sus rangos
-        agregarMetodo("base", 1, 0, 360);
-        agregarMetodo("cuerpo", 1, 0, 180);
-        agregarMetodo("garra", 1, 0, 90);
-        agregarMetodo("velocidad", 1, 1, 100);
-        agregarMetodo("abrirGarra", 0, 0, 0);
-        agregarMetodo("cerrarGarra", 0, 0, 0);
-        agregarMetodo("repetir", 1, 1, Integer.MAX_VALUE);
-        agregarMetodo("iniciar", 0, 0, 0);
-        agregarMetodo("detener", 0, 0, 0);
-    }
-
-    // Actualiza un método con valor, línea y columna
+        agregarMetodo(TipoToken.BASE, 1, 0, 360);
+        agregarMetodo(TipoToken.CUERPO, 1, 0, 180);
+        agregarMetodo(TipoToken.GARRA, 1, 0, 90);
+        agregarMetodo(TipoToken.VELOCIDAD, 1, 1, 100);
+        agregarMetodo(TipoToken.ABRIR_GARRA, 0, 0, 0);
+        agregarMetodo(TipoToken.CERRAR_GARRA, 0, 0, 0);
+        agregarMetodo(TipoToken.REPETIR, 1, 1, Integer.MAX_VALUE);
+        agregarMetodo(TipoToken.INICIAR, 0, 0, 0);
+        agregarMetodo(TipoToken.DETENER, 0, 0, 0);
+    }
+
+    // Actualiza un método con valor, línea y columna. Los métodos son comunes a
+    // todos los robots, así que guardan la última escritura de cualquiera; el
+    // estado de cada robot se guarda con actualizarPropiedad
     public void actualizarMetodo(String nombre, Object valor, int linea, int columna) {
         SimboloInfo metodo = metodos.get(nombre);
         if (metodo != null) {
@@ -38,22 +87,117 @@ public class TablaSimbolo {
         }
     }
 
+    // Actualiza un método identificado por su tipo de token, sin buscar por nombre
+    public void actualizarMetodo(TipoToken tipo, Object valor, int linea, int columna) {
+        SimboloInfo metodo = metodosPorTipo[tipo.ordinal()];
+        if (metodo != null) {
+            metodo.setValor(valor);
+            metodo.setLinea(linea);
+            metodo.setColumna(columna);
+        }
+    }
+
+    // Guarda el valor que un robot da a una propiedad y la posición de la
+    // escritura; se ignoran los robots no declarados y los métodos sin estado
+    public void actualizarPropiedad(int robot, TipoToken tipo, int valor, int linea, int columna) {
+        int propiedad = PROPIEDAD_POR_TIPO[tipo.ordinal()];
+        if (robot < 0 || robot >= cantidadRobots || propiedad < 0) {
+            return;
+        }
+        int posicion = robot * PROPIEDADES.length + propiedad;
+        escritasRobot[posicion] = true;
+        valoresRobot[posicion] = valor;
+        lineasRobot[posicion] = linea;
+        columnasRobot[posicion] = columna;
+    }
+
+    // Indica si el robot ya escribió la propiedad
+    public boolean tieneValorPropiedad(int robot, TipoToken tipo) {
+        int posicion = posicionPropiedad(robot, tipo);
+        return posicion >= 0 && escritasRobot[posicion];
+    }
+
+    // Último valor que el robot dio a la propiedad (0 si no la ha escrito)
+    public int getValorPropiedad(int robot, TipoToken tipo) {
+        int posicion = posicionPropiedad(robot, tipo);
+        return posicion >= 0 ? valoresRobot[posicion] : 0;
+    }
+
+    // Posición de la última escritura de la propiedad por el robot (0 si no la ha escrito)
+    public int getLineaPropiedad(int robot, TipoToken tipo) {
+        int posicion = posicionPropiedad(robot, tipo);
+        return posicion >= 0 ? lineasRobot[posicion] : 0;
+    }
+
+    public int getColumnaPropiedad(int robot, TipoToken tipo) {
+        int posicion = posicionPropiedad(robot, tipo);
+        return posicion >= 0 ? columnasRobot[posicion] : 0;
+    }
+
+    // Estado del robot como texto, p. ej. "base=90, velocidad=50"
+    public String describirEstadoRobot(int robot) {
+        StringBuilder texto = new StringBuilder();
+        for (TipoToken propiedad : PROPIEDADES) {
+            if (tieneValorPropiedad(robot, propiedad)) {
+                if (texto.length() > 0) {
+                    texto.append(", ");
+                }
+                texto.append(propiedad.getLexemaFijo()).append('=').append(getValorPropiedad(robot, propiedad));
+            }
+        }
+        return texto.toString();
+    }
+
+    private int posicionPropiedad(int robot, TipoToken tipo) {
+        int propiedad = PROPIEDAD_POR_TIPO[tipo.ordinal()];
+        if (robot < 0 || robot >= cantidadRobots || propiedad < 0) {
+            return -1;
+        }
+        return robot * PROPIEDADES.length + propiedad;
+    }
+
     // Agrega un símbolo a la tabla
     public boolean agregarSimbolo(String nombre, String tipo) {
-        if (!simbolos.containsKey(nombre)) {
-            simbolos.put(nombre, new SimboloInfo(nombre, tipo));
-            return true;
-        }
-        return false;
+        return registrar(new SimboloInfo(nombre, tipo));
     }
 
     // Agrega un símbolo a la tabla con posición
     public boolean agregarSimbolo(String nombre, String tipo, int linea, int columna) {
-        if (!simbolos.containsKey(nombre)) {
-            simbolos.put(nombre, new SimboloInfo(nombre, tipo, linea, columna));
-            return true;
+        return registrar(new SimboloInfo(nombre, tipo, linea, columna));
+    }
+
+    // Guarda un símbolo si su nombre no existe; los robots reciben el siguiente
+    // índice de declaración
+    private boolean registrar(SimboloInfo simbolo) {
+        if (!simbolos.agregar(simbolo.getNombre(), simbolo)) {
+            return false;
+        }
+        if (simbolo.getTipo().equals("ROBOT")) {
+            simbolo.setIndice(cantidadRobots++);
+            if (cantidadRobots * PROPIEDADES.length > valoresRobot.length) {
+                int capacidad = valoresRobot.length * 2;
+                escritasRobot = Arrays.copyOf(escritasRobot, capacidad);
+                valoresRobot = Arrays.copyOf(valoresRobot, capacidad);
+                lineasRobot = Arrays.copyOf(lineasRobot, capacidad);
+                columnasRobot = Arrays.copyOf(columnasRobot, capacidad);
+            }
         }
-        return false;
+        return true;
+    }
+
+    // Agrega un símbolo identificado por su id del PoolSimbolos; un id negativo
+    // (token sin id) lo registra solo por nombre
+    public boolean agregarSimbolo(int idSimbolo, String nombre, String tipo, int linea, int columna) {
+        if (!agregarSimbolo(nombre, tipo, linea, columna)) {
+            return false;
+        }
+        if (idSimbolo >= 0) {
+            if (idSimbolo >= simbolosPorId.length) {
+                simbolosPorId = Arrays.copyOf(simbolosPorId, Math.max(simbolosPorId.length * 2, idSimbolo + 1));
+            }
+            simbolosPorId[idSimbolo] = simbolos.get(nombre);
+        }
+        return true;
     }
 
     // Actualiza el valor de un método
@@ -64,14 +208,40 @@ public class TablaSimbolo {
         }
     }
 
-    // Agrega un método a la tabla con sus rangos
-    private void agregarMetodo(String nombre, int numParametros, int minValor, int maxValor) {
-        metodos.put(nombre, new SimboloInfo(nombre, "METODO", null, numParametros, minValor, maxValor));
+    // Agrega un método a la tabla con sus rangos; su nombre es el lexema del token
+    private void agregarMetodo(TipoToken tipo, int numParametros, int minValor, int maxValor) {
+        String nombre = tipo.getLexemaFijo();
+        SimboloInfo metodo = new SimboloInfo(nombre, "METODO", null, numParametros, minValor, maxValor);
+        metodos.agregar(nombre, metodo);
+        metodosPorTipo[tipo.ordinal()] = metodo;
+        if (numParametros > 0) {
+            minimos[tipo.ordinal()] = minValor;
+            maximos[tipo.ordinal()] = maxValor;
+        }
+    }
+
+    // Verifica que el valor esté en el rango permitido para el método
+    public boolean validarRango(TipoToken tipo, int valor) {
+        return valor >= minimos[tipo.ordinal()] && valor <= maximos[tipo.ordinal()];
+    }
+
+    // Límites del rango permitido para el método
+    public int getMinimo(TipoToken tipo) {
+        return minimos[tipo.ordinal()];
+    }
+
+    public int getMaximo(TipoToken tipo) {
+        return maximos[tipo.ordinal()];
     }
 
     // Verifica si existe un símbolo
     public boolean simboloExiste(String nombre) {
-        return simbolos.containsKey(nombre);
+        return simbolos.contiene(nombre);
+    }
+
+    // Verifica si existe un símbolo a partir de su id, sin calcular hashes
+    public boolean simboloExiste(int idSimbolo) {
+        return getSimboloInfo(idSimbolo) != null;
     }
 
     // Obtiene información de un símbolo
@@ -79,19 +249,50 @@ public class TablaSimbolo {
         return simbolos.get(nombre);
     }
 
+    // Obtiene información de un símbolo a partir de su id (null si no está declarado)
+    public SimboloInfo getSimboloInfo(int idSimbolo) {
+        if (idSimbolo < 0 || idSimbolo >= simbolosPorId.length) {
+            return null;
+        }
+        return simbolosPorId[idSimbolo];
+    }
+
+    // Índice de declaración del robot con el id dado, o -1 si no está declarado
+    public int getIndiceRobot(int idSimbolo) {
+        SimboloInfo simbolo = getSimboloInfo(idSimbolo);
+        return simbolo != null ? simbolo.getIndice() : -1;
+    }
+
+    // Índice de declaración del robot con el nombre dado, o -1 si no está declarado
+    public int getIndiceRobot(String nombre) {
+        SimboloInfo simbolo = simbolos.get(nombre);
+        return simbolo != null ? simbolo.getIndice() : -1;
+    }
+
+    // Cantidad de robots declarados
+    public int getCantidadRobots() {
+        return cantidadRobots;
+    }
+
     // Obtiene información de un método
     public SimboloInfo getMetodoInfo(String nombre) {
         return metodos.get(nombre);
     }
 
-    // Obtiene todos los símbolos
+    // Obtiene información de un método a partir de su tipo de token
+    public SimboloInfo getMetodoInfo(TipoToken tipo) {
+        return metodosPorTipo[tipo.ordinal()];
+    }
+
+    // Obtiene todos los símbolos en orden de declaración; la lista es de solo
+    // lectura y no se copia
     public List<SimboloInfo> getSimbolos() {
-        return new ArrayList<>(simbolos.values());
+        return simbolos.vista();
     }
 
-    // Obtiene todos los métodos
+    // Obtiene todos los métodos en orden de registro; la lista es de solo lectura
     public List<SimboloInfo> getMetodos() {
-        return new ArrayList<>(metodos.values());
+        return metodos.vista();
     }
 
     // Verifica errores semánticos adicionales
@@ -101,7 +302,7 @@ public class TablaSimbolo {
         // Buscar robots duplicados
         Map<String, SimboloInfo> robotsEncontrados = new HashMap<>();
 
-        for (SimboloInfo simbolo : simbolos.values()) {
+        for (SimboloInfo simbolo : simbolos.vista()) {
             if (simbolo.getTipo().equals("ROBOT")) {
                 if (robotsEncontrados.containsKey(simbolo.getNombre())) {
                     SimboloInfo primero = robotsEncontrados.get(simbolo.getNombre());
@@ -121,14 +322,14 @@ public class TablaSimbolo {
     public void imprimirTablaSimbolo() {
         System.out.println("===== TABLA DE SÍMBOLOS =====");
         System.out.println("--- Robots ---");
-        for (SimboloInfo simbolo : simbolos.values()) {
+        for (SimboloInfo simbolo : simbolos.vista()) {
             if (simbolo.getTipo().equals("ROBOT")) {
                 System.out.println(simbolo);
             }
         }
 
         System.out.println("--- Métodos predefinidos ---");
-        for (SimboloInfo metodo : metodos.values()) {
+        for (SimboloInfo metodo : metodos.vista()) {
             System.out.println(metodo);
         }
         System.out.println("============================");
@@ -0,0 +1,11 @@
+package analizador.sintactico;
+
+/**
+ * Tipos de nodo del árbol de un programa de robots
+ */
+public enum TipoNodo {
+    DECLARACION_ROBOT, // Robot r1
+    ASIGNACION, // r1.base = 90
+    LLAMADA, // r1.base(90), r1.iniciar, r1.abrirGarra()
+    REPETIR // r1.repetir(3) { ... }
+}
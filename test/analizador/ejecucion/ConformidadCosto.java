@@ -0,0 +1,152 @@
+package analizador.ejecucion;
+
+import java.io.StringReader;
+import java.util.Random;
+
+import analizador.diagnostico.ColectorDiagnosticos;
+import analizador.lexico.AnalizadorLexico;
+import analizador.sintactico.AnalizadorSintactico;
+import analizador.sintactico.ArbolPrograma;
+
+/**
+ * Comprobación diferencial de AnalizadorCosto contra Simulador. Genera
+ * programas aleatorios de tres robots con bloques repetir anidados y
+ * velocidades arbitrarias, y compara comandos y duración, totales y por
+ * robot. Antes de los casos aleatorios comprueba programas fijos donde
+ * redondear los giros en conjunto y no uno a uno daría otro resultado.
+ *
+ * Uso: java -cp clases:test analizador.ejecucion.ConformidadCosto [casos] [semilla]
+ * Termina con código 1 si algún caso difiere.
+ */
+public class ConformidadCosto {
+    private static final String[] ROBOTS = { "r1", "r2", "r3" };
+    private static final String[] ARTICULACIONES = { "base", "cuerpo", "garra" };
+    private static final String DECLARACIONES = "Robot r1\nRobot r2\nRobot r3\n";
+
+    private static final String[] FIJOS = {
+        "Robot r\nr.iniciar\nr.velocidad = 3\nr.repetir(2) {\nr.base = 1\nr.base = 0\n}\n",
+        "Robot r\nr.iniciar\nr.velocidad = 7\nr.repetir(3) {\nr.repetir(2) {\nr.cuerpo = 1\n}\nr.cuerpo = 0\n}\n",
+        "Robot r\nr.repetir(5) {\nr.iniciar\nr.garra = 1\nr.garra = 2\nr.detener\n}\nr.velocidad = 9\n"
+                + "r.repetir(4) {\nr.iniciar\nr.base = 13\nr.base = 0\n}\n",
+        "Robot r\nr.iniciar\nr.repetir(3) {\nr.base = 1\nr.velocidad = 3\nr.base = 0\nr.velocidad = 7\n}\n"
+    };
+
+    private static final int MAXIMO_MOSTRADOS = 5;
+
+    private static Random aleatorio;
+
+    public static void main(String[] args) {
+        int casos = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        long semilla = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        aleatorio = new Random(semilla);
+
+        int diferencias = 0;
+        for (String programa : FIJOS) {
+            if (!comparar(programa, diferencias < MAXIMO_MOSTRADOS)) {
+                diferencias++;
+            }
+        }
+        for (int caso = 0; caso < casos; caso++) {
+            StringBuilder programa = new StringBuilder(DECLARACIONES);
+            bloque(programa, 0, aleatorio.nextInt(15));
+            if (!comparar(programa.toString(), diferencias < MAXIMO_MOSTRADOS)) {
+                diferencias++;
+            }
+        }
+
+        System.out.println((FIJOS.length + casos) + " programas, " + diferencias + " diferencias (semilla "
+                + semilla + ")");
+        if (diferencias > 0) {
+            System.exit(1);
+        }
+    }
+
+    // Agrega n instrucciones al azar; los bloques repetir se anidan hasta cuatro niveles
+    private static void bloque(StringBuilder programa, int profundidad, int n) {
+        for (int i = 0; i < n; i++) {
+            String robot = ROBOTS[aleatorio.nextInt(ROBOTS.length)];
+            int opcion = aleatorio.nextInt(10);
+            if (opcion == 0 && profundidad < 4) {
+                programa.append(robot).append(".repetir(").append(1 + aleatorio.nextInt(4)).append(") {\n");
+                bloque(programa, profundidad + 1, aleatorio.nextInt(5));
+                programa.append("}\n");
+            } else if (opcion < 4) {
+                String articulacion = ARTICULACIONES[aleatorio.nextInt(ARTICULACIONES.length)];
+                programa.append(robot).append('.').append(articulacion).append(" = ")
+                        .append(aleatorio.nextInt(90)).append('\n');
+            } else if (opcion == 4) {
+                programa.append(robot).append(".velocidad = ").append(1 + aleatorio.nextInt(100)).append('\n');
+            } else if (opcion == 5) {
+                programa.append(robot).append(".iniciar\n");
+            } else if (opcion == 6) {
+                programa.append(robot).append(".detener\n");
+            } else if (opcion == 7) {
+                programa.append(robot).append(".abrirGarra()\n");
+            } else {
+                programa.append(robot).append(".cerrarGarra()\n");
+            }
+        }
+    }
+
+    // Indica si el análisis y la simulación del programa coinciden
+    private static boolean comparar(String texto, boolean mostrar) {
+        ArbolPrograma arbol = arbol(texto);
+        Simulador simulador = new Simulador(arbol);
+        simulador.ejecutar();
+        AnalizadorCosto costo = new AnalizadorCosto(arbol);
+        costo.analizar();
+
+        StringBuilder esperado = new StringBuilder();
+        StringBuilder obtenido = new StringBuilder();
+        esperado.append(simulador.getComandos()).append(' ').append(simulador.getTiempo());
+        obtenido.append(costo.getComandos()).append(' ').append(costo.getDuracion());
+        for (int robot = 0; robot < arbol.getCantidadRobots(); robot++) {
+            long[] porRobot = simularRobot(arbol, robot);
+            esperado.append(" | ").append(porRobot[0]).append(' ').append(porRobot[1]);
+            obtenido.append(" | ").append(costo.getComandos(robot)).append(' ').append(costo.getDuracion(robot));
+        }
+
+        if (esperado.toString().equals(obtenido.toString())) {
+            return true;
+        }
+        if (mostrar) {
+            System.out.println(texto);
+            System.out.println("Simulador:       " + esperado);
+            System.out.println("AnalizadorCosto: " + obtenido);
+        }
+        return false;
+    }
+
+    // Comandos y duración de un robot, sumando lo que emite en la simulación
+    private static long[] simularRobot(ArbolPrograma arbol, int robot) {
+        Bytecode programa = new Compilador(arbol).compilar();
+        long[] total = new long[2];
+        Simulador simulador = new Simulador(programa);
+        long[] anterior = { -1, 0 };
+        simulador.setReceptor((tiempo, emisor, miembro, valor) -> {
+            // La duración del comando anterior termina cuando empieza este
+            if (anterior[0] == robot) {
+                total[1] += tiempo - anterior[1];
+            }
+            anterior[0] = emisor;
+            anterior[1] = tiempo;
+            if (emisor == robot) {
+                total[0]++;
+            }
+        });
+        simulador.ejecutar();
+        if (anterior[0] == robot) {
+            total[1] += simulador.getTiempo() - anterior[1];
+        }
+        return total;
+    }
+
+    private static ArbolPrograma arbol(String texto) {
+        AnalizadorLexico lexer = new AnalizadorLexico(new StringReader(texto));
+        lexer.setDiagnosticos(new ColectorDiagnosticos());
+        AnalizadorSintactico parser = new AnalizadorSintactico(lexer);
+        parser.setConstruirArbol(true);
+        parser.analizar();
+        return parser.getArbol();
+    }
+}
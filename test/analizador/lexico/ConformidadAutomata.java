@@ -0,0 +1,116 @@
+package analizador.lexico;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+
+import analizador.diagnostico.ColectorDiagnosticos;
+
+/**
+ * Comprobación diferencial de AnalizadorLexicoAutomata contra AnalizadorLexico.
+ * Genera programas aleatorios con piezas del lenguaje, números en los límites
+ * de la conversión, dígitos Unicode, comentarios y caracteres sueltos, los
+ * analiza con los dos léxicos y compara tokens, desplazamientos, valores y
+ * diagnósticos.
+ *
+ * Uso: java -cp clases:test analizador.lexico.ConformidadAutomata [casos] [semilla]
+ * Termina con código 1 si algún caso difiere.
+ */
+public class ConformidadAutomata {
+    private static final String[] PIEZAS = {
+        "Robot", "r1", "r2", "x_1", "ñandú", "_", ".", "base", "cuerpo", "garra", "velocidad", "iniciar",
+        "detener", "abrirGarra", "cerrarGarra", "repetir", "=", "(", ")", "{", "}", ",", ";", "-", "#", "é",
+        "0", "5", "400", "2147483647", "2147483648", "3000000000", "1.5", "2.49", "9.5", "0.", "1..2",
+        "4095.999", "4096.5", "12345678.5", "٣", "١٢", "1.٣", "/", "//", "//comentario\n", "\n", "\r\n",
+        " ", "\t", " ", " "
+    };
+
+    private static final int MAXIMO_MOSTRADOS = 5;
+
+    public static void main(String[] args) {
+        int casos = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        long semilla = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        Random aleatorio = new Random(semilla);
+
+        int diferencias = 0;
+        for (int caso = 0; caso < casos; caso++) {
+            String texto = generar(aleatorio);
+            String esperado = volcarManual(texto);
+            String obtenido = volcarAutomata(texto);
+            if (!esperado.equals(obtenido)) {
+                if (diferencias < MAXIMO_MOSTRADOS) {
+                    System.out.println("Caso " + caso + ": " + escapar(texto));
+                    System.out.println("AnalizadorLexico:\n" + esperado);
+                    System.out.println("AnalizadorLexicoAutomata:\n" + obtenido);
+                }
+                diferencias++;
+            }
+        }
+
+        System.out.println(casos + " casos, " + diferencias + " diferencias (semilla " + semilla + ")");
+        if (diferencias > 0) {
+            System.exit(1);
+        }
+    }
+
+    // Concatena piezas al azar, a veces separadas por un espacio, y a veces
+    // agrega caracteres arbitrarios del plano básico
+    private static String generar(Random aleatorio) {
+        StringBuilder texto = new StringBuilder();
+        int piezas = aleatorio.nextInt(40);
+        for (int i = 0; i < piezas; i++) {
+            texto.append(PIEZAS[aleatorio.nextInt(PIEZAS.length)]);
+            if (aleatorio.nextInt(3) == 0) {
+                texto.append(' ');
+            }
+        }
+        if (aleatorio.nextInt(5) == 0) {
+            for (int i = 0; i < 5; i++) {
+                texto.insert(aleatorio.nextInt(texto.length() + 1), (char) aleatorio.nextInt(0x3000));
+            }
+        }
+        return texto.toString();
+    }
+
+    private static String volcarManual(String texto) {
+        AnalizadorLexico lexer = new AnalizadorLexico(new StringReader(texto));
+        ColectorDiagnosticos errores = new ColectorDiagnosticos();
+        lexer.setDiagnosticos(errores);
+        return volcar(lexer.analizarFlujo(), errores);
+    }
+
+    private static String volcarAutomata(String texto) {
+        AnalizadorLexicoAutomata lexer = new AnalizadorLexicoAutomata(texto);
+        ColectorDiagnosticos errores = new ColectorDiagnosticos();
+        lexer.setDiagnosticos(errores);
+        return volcar(lexer.analizarFlujo(), errores);
+    }
+
+    private static String volcar(TokenStream flujo, ColectorDiagnosticos errores) {
+        StringBuilder salida = new StringBuilder();
+        for (int i = 0; i < flujo.tamano(); i++) {
+            Token token = flujo.getToken(i);
+            salida.append(token).append(" inicio=").append(flujo.getInicio(i))
+                    .append(" valor=").append(token.getValor())
+                    .append(" id=").append(token.getIdSimbolo()).append('\n');
+        }
+        List<String> mensajes = errores.getMensajes();
+        for (String mensaje : mensajes) {
+            salida.append(mensaje).append('\n');
+        }
+        return salida.toString();
+    }
+
+    private static String escapar(String texto) {
+        StringBuilder salida = new StringBuilder();
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c < 0x20 || c > 0x7E) {
+                salida.append(String.format("\\u%04x", (int) c));
+            } else {
+                salida.append(c);
+            }
+        }
+        return salida.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package analizador.lexico;
+
+import java.io.StringReader;
+
+import analizador.diagnostico.ColectorDiagnosticos;
+
+/**
+ * Regresión del salto de comentarios: un programa de 1.000.000 de líneas
+ * "//" consecutivas debe analizarse sin StackOverflowError y producir solo el
+ * token EOF. El análisis corre en un hilo con una pila pequeña y fija, así que
+ * una versión que vuelva a recursar por cada comentario falla aunque la JVM
+ * se lance con una pila grande. También informa el tiempo del análisis.
+ *
+ * Uso: java -cp clases:test analizador.lexico.RegresionComentarios [lineas]
+ * Termina con código 1 si el análisis falla.
+ */
+public class RegresionComentarios {
+    private static final long TAMANO_PILA = 256 * 1024;
+
+    public static void main(String[] args) throws InterruptedException {
+        int lineas = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        StringBuilder texto = new StringBuilder(lineas * 24);
+        for (int i = 0; i < lineas; i++) {
+            texto.append("// comentario ").append(i).append('\n');
+        }
+        String programa = texto.toString();
+
+        String[] resultado = new String[1];
+        Thread hilo = new Thread(null, () -> resultado[0] = analizar(programa), "lexico", TAMANO_PILA);
+        hilo.start();
+        hilo.join();
+
+        if (resultado[0] != null) {
+            System.out.println(lineas + " líneas de comentario: " + resultado[0]);
+            System.exit(1);
+        }
+    }
+
+    // Devuelve null si el análisis solo produjo EOF, o la descripción del fallo
+    private static String analizar(String programa) {
+        try {
+            long inicio = System.nanoTime();
+            AnalizadorLexico lexer = new AnalizadorLexico(new StringReader(programa));
+            ColectorDiagnosticos errores = new ColectorDiagnosticos();
+            lexer.setDiagnosticos(errores);
+            lexer.setRetenerTokens(false);
+            Token token = lexer.siguienteToken();
+            long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+
+            if (token.getTipo() != TipoToken.EOF) {
+                return "se esperaba EOF y se obtuvo " + token;
+            }
+            if (!errores.getMensajes().isEmpty()) {
+                return "errores inesperados: " + errores.getMensajes();
+            }
+            System.out.println(programa.length() + " caracteres de comentarios, solo EOF, " + milisegundos + " ms");
+            return null;
+        } catch (StackOverflowError e) {
+            return "StackOverflowError";
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package analizador.lexico;
+
+import java.util.Random;
+
+/**
+ * Comparación de ClaseCaracter con los métodos de Character que sustituye.
+ * Recorre un programa de robots generado con la misma secuencia de consultas
+ * que hace el analizador léxico (espacio, letra, dígito y continuación de
+ * identificador) y mide cada variante como el mejor de varias rondas, después
+ * de un calentamiento. Las dos variantes deben contar lo mismo; si no, el
+ * programa termina con código 1.
+ *
+ * Uso: java -cp clases:test analizador.lexico.RendimientoClaseCaracter [lineas] [rondas]
+ */
+public class RendimientoClaseCaracter {
+    private static final String[] ARTICULACIONES = { "base", "cuerpo", "garra" };
+    private static final int CALENTAMIENTO = 20;
+
+    public static void main(String[] args) {
+        int lineas = args.length > 0 ? Integer.parseInt(args[0]) : 500_000;
+        int rondas = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        char[] texto = generar(lineas).toCharArray();
+
+        long esperado = contarConCharacter(texto);
+        long obtenido = contarConTabla(texto);
+        if (esperado != obtenido) {
+            System.out.println("Las clasificaciones difieren: " + esperado + " / " + obtenido);
+            System.exit(1);
+        }
+
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            contarConCharacter(texto);
+            contarConTabla(texto);
+        }
+        long mejorCharacter = Long.MAX_VALUE;
+        long mejorTabla = Long.MAX_VALUE;
+        for (int i = 0; i < rondas; i++) {
+            long inicio = System.nanoTime();
+            contarConCharacter(texto);
+            mejorCharacter = Math.min(mejorCharacter, System.nanoTime() - inicio);
+            inicio = System.nanoTime();
+            contarConTabla(texto);
+            mejorTabla = Math.min(mejorTabla, System.nanoTime() - inicio);
+        }
+
+        System.out.printf("%d caracteres: Character %.2f ms, ClaseCaracter %.2f ms%n", texto.length,
+                mejorCharacter / 1e6, mejorTabla / 1e6);
+    }
+
+    // Programa con declaraciones, bloques repetir con sangría y comentarios
+    private static String generar(int lineas) {
+        Random aleatorio = new Random(1);
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < lineas; i++) {
+            String robot = "robot" + aleatorio.nextInt(1000);
+            switch (aleatorio.nextInt(6)) {
+                case 0:
+                    texto.append("Robot ").append(robot).append('\n');
+                    break;
+                case 1:
+                    texto.append("// mover ").append(robot).append(" a la posición inicial\n");
+                    break;
+                case 2:
+                    texto.append(robot).append(".repetir(").append(1 + aleatorio.nextInt(9)).append(") {\n");
+                    break;
+                case 3:
+                    texto.append("}\n");
+                    break;
+                default:
+                    texto.append("    ").append(robot).append('.')
+                            .append(ARTICULACIONES[aleatorio.nextInt(ARTICULACIONES.length)])
+                            .append(" = ").append(aleatorio.nextInt(360)).append('\n');
+                    break;
+            }
+        }
+        return texto.toString();
+    }
+
+    // Cuenta por clase con el orden de consultas de AnalizadorLexico.escanear()
+    private static long contarConCharacter(char[] texto) {
+        long espacios = 0;
+        long letras = 0;
+        long digitos = 0;
+        long continuaciones = 0;
+        for (char c : texto) {
+            if (Character.isWhitespace(c)) {
+                espacios++;
+            } else if (Character.isLetter(c)) {
+                letras++;
+            } else if (Character.isDigit(c)) {
+                digitos++;
+            }
+            if (Character.isLetterOrDigit(c) || c == '_') {
+                continuaciones++;
+            }
+        }
+        return espacios + 31 * (letras + 31 * (digitos + 31 * continuaciones));
+    }
+
+    private static long contarConTabla(char[] texto) {
+        long espacios = 0;
+        long letras = 0;
+        long digitos = 0;
+        long continuaciones = 0;
+        for (char c : texto) {
+            if (ClaseCaracter.esEspacio(c)) {
+                espacios++;
+            } else if (ClaseCaracter.esLetra(c)) {
+                letras++;
+            } else if (ClaseCaracter.esDigito(c)) {
+                digitos++;
+            }
+            if (ClaseCaracter.esContinuacionIdentificador(c)) {
+                continuaciones++;
+            }
+        }
+        return espacios + 31 * (letras + 31 * (digitos + 31 * continuaciones));
+    }
+}
@@ -0,0 +1,117 @@
+package analizador.lexico;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+/**
+ * Mide el salto de espacios y comentarios de los analizadores léxicos sobre
+ * cuatro entradas generadas: líneas de comentario solo ASCII, las mismas con
+ * letras acentuadas, líneas con mucha sangría y un programa mixto. Para cada entrada y analizador informa el
+ * mejor de varias rondas después de un calentamiento, y comprueba que
+ * AnalizadorLexico y AnalizadorLexicoUtf8 producen la misma cantidad de
+ * tokens. Para ver la ganancia de un cambio, se ejecuta con las clases
+ * compiladas antes y después del cambio sobre la misma máquina.
+ *
+ * Uso: java -cp clases:test analizador.lexico.RendimientoEspacios [rondas]
+ * Termina con código 1 si los analizadores no coinciden.
+ */
+public class RendimientoEspacios {
+    private static final int CALENTAMIENTO = 10;
+
+    public static void main(String[] args) {
+        int rondas = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        boolean coinciden = medir("comentarios", comentarios(1_000_000, "linea"), rondas)
+                & medir("acentos", comentarios(1_000_000, "línea"), rondas)
+                & medir("sangría", sangria(400_000), rondas)
+                & medir("mixto", mixto(1_000_000), rondas);
+        if (!coinciden) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean medir(String nombre, String texto, int rondas) {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        int tokensReader = analizarReader(texto);
+        int tokensUtf8 = analizarUtf8(bytes);
+        if (tokensReader != tokensUtf8) {
+            System.out.println(nombre + ": AnalizadorLexico da " + tokensReader + " tokens y AnalizadorLexicoUtf8 "
+                    + tokensUtf8);
+            return false;
+        }
+
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            analizarReader(texto);
+            analizarUtf8(bytes);
+        }
+        long mejorReader = Long.MAX_VALUE;
+        long mejorUtf8 = Long.MAX_VALUE;
+        for (int i = 0; i < rondas; i++) {
+            long inicio = System.nanoTime();
+            analizarReader(texto);
+            mejorReader = Math.min(mejorReader, System.nanoTime() - inicio);
+            inicio = System.nanoTime();
+            analizarUtf8(bytes);
+            mejorUtf8 = Math.min(mejorUtf8, System.nanoTime() - inicio);
+        }
+
+        System.out.printf("%-12s %9d caracteres %8d tokens: AnalizadorLexico %7.2f ms, AnalizadorLexicoUtf8 %7.2f ms%n",
+                nombre, texto.length(), tokensReader, mejorReader / 1e6, mejorUtf8 / 1e6);
+        return true;
+    }
+
+    private static int analizarReader(String texto) {
+        return new AnalizadorLexico(new StringReader(texto)).analizarFlujo().tamano();
+    }
+
+    private static int analizarUtf8(byte[] bytes) {
+        return new AnalizadorLexicoUtf8(bytes).analizarFlujo().tamano();
+    }
+
+    // Líneas de comentario de unos 60 caracteres, como las cabeceras generadas
+    private static String comentarios(int lineas, String palabra) {
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < lineas; i++) {
+            texto.append("// ").append(palabra).append(' ').append(i).append(" de la cabecera generada por la herramienta\n");
+        }
+        return texto.toString();
+    }
+
+    // Asignaciones dentro de bloques con sangría profunda de espacios y tabuladores
+    private static String sangria(int lineas) {
+        StringBuilder texto = new StringBuilder("Robot r\n");
+        for (int i = 0; i < lineas; i++) {
+            texto.append(i % 2 == 0 ? "                        " : "\t\t\t\t\t\t").append("r.base = ")
+                    .append(i % 360).append('\n');
+        }
+        return texto.toString();
+    }
+
+    // Programa con declaraciones, bloques, sangría y comentarios mezclados
+    private static String mixto(int lineas) {
+        Random aleatorio = new Random(1);
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < lineas; i++) {
+            String robot = "robot" + aleatorio.nextInt(1000);
+            switch (aleatorio.nextInt(6)) {
+                case 0:
+                    texto.append("Robot ").append(robot).append('\n');
+                    break;
+                case 1:
+                    texto.append("    // mover ").append(robot).append(" a la posición inicial\n");
+                    break;
+                case 2:
+                    texto.append(robot).append(".repetir(").append(1 + aleatorio.nextInt(9)).append(") {\n");
+                    break;
+                case 3:
+                    texto.append("}\n");
+                    break;
+                default:
+                    texto.append("        ").append(robot).append(".cuerpo = ").append(aleatorio.nextInt(360))
+                            .append('\n');
+                    break;
+            }
+        }
+        return texto.toString();
+    }
+}
@@ -0,0 +1,130 @@
+package analizador.sintactico;
+
+import java.io.StringReader;
+import java.util.function.Supplier;
+
+import analizador.diagnostico.CodigoDiagnostico;
+import analizador.diagnostico.Diagnostico;
+import analizador.lexico.AnalizadorLexico;
+
+/**
+ * Regresión del anidamiento de bloques repetir, que se analiza con una pila
+ * explícita. Comprueba dos casos:
+ *
+ * - 200.000 niveles, con setProfundidadMaxima por encima, se analizan sin
+ *   errores y el árbol tiene un nodo por bloque;
+ * - con el límite por omisión, un programa que lo supera con bloques anidados
+ *   y varios hermanos produce exactamente un ANIDAMIENTO_EXCESIVO y ningún
+ *   otro error.
+ *
+ * El análisis corre en un hilo con una pila pequeña y fija, así que un
+ * analizador que vuelva a recursar por cada bloque falla con cualquier -Xss.
+ *
+ * Uso: java -cp clases:test analizador.sintactico.RegresionAnidamiento [niveles]
+ * Termina con código 1 si algún caso falla.
+ */
+public class RegresionAnidamiento {
+    private static final long TAMANO_PILA = 256 * 1024;
+    // Límite por omisión de AnalizadorSintactico
+    private static final int PROFUNDIDAD_MAXIMA = 10000;
+
+    public static void main(String[] args) throws InterruptedException {
+        int niveles = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        boolean correcto = ejecutar("profundo", () -> profundo(niveles))
+                & ejecutar("límite", RegresionAnidamiento::limite);
+        if (!correcto) {
+            System.exit(1);
+        }
+    }
+
+    // Ejecuta un caso en un hilo con pila pequeña; el caso devuelve null si pasa
+    // o la descripción del fallo
+    private static boolean ejecutar(String nombre, Supplier<String> caso) throws InterruptedException {
+        String[] resultado = new String[1];
+        Thread hilo = new Thread(null, () -> {
+            try {
+                resultado[0] = caso.get();
+            } catch (StackOverflowError e) {
+                resultado[0] = "StackOverflowError";
+            }
+        }, nombre, TAMANO_PILA);
+        hilo.start();
+        hilo.join();
+
+        System.out.println(nombre + ": " + (resultado[0] == null ? "correcto" : resultado[0]));
+        return resultado[0] == null;
+    }
+
+    private static String profundo(int niveles) {
+        AnalizadorSintactico parser = analizador(anidado(niveles, 1));
+        parser.setProfundidadMaxima(niveles + 1);
+        parser.setConstruirArbol(true);
+        parser.analizar();
+
+        if (!parser.getErrores().isEmpty()) {
+            return niveles + " niveles dieron errores: " + primeros(parser);
+        }
+        // Declaración, un nodo por bloque y la asignación del fondo
+        int esperados = niveles + 2;
+        if (parser.getArbol().tamano() < esperados) {
+            return "el árbol tiene " + parser.getArbol().tamano() + " nodos, se esperaban al menos " + esperados;
+        }
+        return null;
+    }
+
+    // Tres bloques hermanos que cruzan el límite, cada uno con otro bloque
+    // dentro; es una sola excursión por encima de él y se reporta una vez
+    private static String limite() {
+        StringBuilder programa = new StringBuilder("Robot r\n");
+        abrir(programa, PROFUNDIDAD_MAXIMA);
+        for (int i = 0; i < 3; i++) {
+            abrir(programa, 2);
+            programa.append("r.base = 1\n");
+            cerrar(programa, 2);
+        }
+        cerrar(programa, PROFUNDIDAD_MAXIMA);
+
+        AnalizadorSintactico parser = analizador(programa.toString());
+        parser.analizar();
+
+        int excesivos = 0;
+        for (Diagnostico diagnostico : parser.getErroresEstructurados().getDiagnosticos()) {
+            if (diagnostico.getCodigo() != CodigoDiagnostico.ANIDAMIENTO_EXCESIVO) {
+                return "error inesperado: " + diagnostico;
+            }
+            excesivos++;
+        }
+        if (excesivos != 1) {
+            return excesivos + " ANIDAMIENTO_EXCESIVO, se esperaba exactamente uno";
+        }
+        return null;
+    }
+
+    private static String anidado(int niveles, int valor) {
+        StringBuilder programa = new StringBuilder("Robot r\n");
+        abrir(programa, niveles);
+        programa.append("r.base = ").append(valor).append('\n');
+        cerrar(programa, niveles);
+        return programa.toString();
+    }
+
+    private static void abrir(StringBuilder programa, int niveles) {
+        for (int i = 0; i < niveles; i++) {
+            programa.append("r.repetir(2) {\n");
+        }
+    }
+
+    private static void cerrar(StringBuilder programa, int niveles) {
+        for (int i = 0; i < niveles; i++) {
+            programa.append("}\n");
+        }
+    }
+
+    private static AnalizadorSintactico analizador(String programa) {
+        return new AnalizadorSintactico(new AnalizadorLexico(new StringReader(programa)));
+    }
+
+    private static String primeros(AnalizadorSintactico parser) {
+        return parser.getErrores().subList(0, Math.min(3, parser.getErrores().size())).toString();
+    }
+}
@@ -0,0 +1,123 @@
+package analizador.sintactico;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Comparación de MapaSimbolos con el HashMap que usaba antes TablaSimbolo.
+ * La variante HashMap reproduce la tabla anterior: containsKey y put al
+ * registrar, get al consultar y una copia en un ArrayList en cada
+ * getSimbolos(). Se mide por separado el registro de los nombres, las
+ * consultas y las lecturas de la lista, como el mejor de varias rondas después
+ * de un calentamiento. Las dos variantes deben dar los mismos resultados; si
+ * no, el programa termina con código 1.
+ *
+ * Uso: java -cp clases:test analizador.sintactico.RendimientoMapaSimbolos [nombres] [rondas]
+ */
+public class RendimientoMapaSimbolos {
+    private static final int CALENTAMIENTO = 20;
+    private static final int CONSULTAS_POR_NOMBRE = 10;
+    private static final int LECTURAS_LISTA = 10;
+
+    public static void main(String[] args) {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int rondas = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        // Nombres y consultas en objetos String distintos, como los que llegan
+        // del analizador léxico, con las consultas en otro orden
+        String[] nombres = new String[cantidad];
+        String[] consultas = new String[cantidad];
+        for (int i = 0; i < cantidad; i++) {
+            nombres[i] = new String("robot" + i);
+            consultas[i] = new String("robot" + (int) ((i * 7919L) % cantidad));
+        }
+
+        long[] esperado = medirHashMap(nombres, consultas);
+        long[] obtenido = medirMapa(nombres, consultas);
+        if (esperado[3] != obtenido[3]) {
+            System.out.println("Los resultados difieren: " + esperado[3] + " / " + obtenido[3]);
+            System.exit(1);
+        }
+
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            medirHashMap(nombres, consultas);
+            medirMapa(nombres, consultas);
+        }
+        long[] mejorHashMap = { Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE };
+        long[] mejorMapa = { Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE };
+        for (int i = 0; i < rondas; i++) {
+            minimos(mejorHashMap, medirHashMap(nombres, consultas));
+            minimos(mejorMapa, medirMapa(nombres, consultas));
+        }
+
+        System.out.printf("%d nombres, %d consultas, %d lecturas de la lista%n", cantidad,
+                cantidad * CONSULTAS_POR_NOMBRE, LECTURAS_LISTA);
+        mostrar("HashMap", mejorHashMap);
+        mostrar("MapaSimbolos", mejorMapa);
+    }
+
+    // Tiempos de registro, consultas y lecturas de la lista, y un resumen de
+    // los resultados para comparar las variantes
+    private static long[] medirHashMap(String[] nombres, String[] consultas) {
+        long inicio = System.nanoTime();
+        Map<String, SimboloInfo> mapa = new HashMap<>();
+        for (String nombre : nombres) {
+            if (!mapa.containsKey(nombre)) {
+                mapa.put(nombre, new SimboloInfo(nombre, "ROBOT"));
+            }
+        }
+        long registrado = System.nanoTime();
+
+        long resumen = 0;
+        for (int k = 0; k < CONSULTAS_POR_NOMBRE; k++) {
+            for (String consulta : consultas) {
+                resumen += mapa.get(consulta).getNombre().length();
+            }
+        }
+        long consultado = System.nanoTime();
+
+        for (int k = 0; k < LECTURAS_LISTA; k++) {
+            List<SimboloInfo> lista = new ArrayList<>(mapa.values());
+            resumen += lista.size();
+        }
+        long leido = System.nanoTime();
+        return new long[] { registrado - inicio, consultado - registrado, leido - consultado, resumen };
+    }
+
+    private static long[] medirMapa(String[] nombres, String[] consultas) {
+        long inicio = System.nanoTime();
+        MapaSimbolos mapa = new MapaSimbolos();
+        for (String nombre : nombres) {
+            mapa.agregar(nombre, new SimboloInfo(nombre, "ROBOT"));
+        }
+        long registrado = System.nanoTime();
+
+        long resumen = 0;
+        for (int k = 0; k < CONSULTAS_POR_NOMBRE; k++) {
+            for (String consulta : consultas) {
+                resumen += mapa.get(consulta).getNombre().length();
+            }
+        }
+        long consultado = System.nanoTime();
+
+        for (int k = 0; k < LECTURAS_LISTA; k++) {
+            List<SimboloInfo> lista = mapa.vista();
+            resumen += lista.size();
+        }
+        long leido = System.nanoTime();
+        return new long[] { registrado - inicio, consultado - registrado, leido - consultado, resumen };
+    }
+
+    private static void minimos(long[] mejores, long[] tiempos) {
+        for (int i = 0; i < mejores.length; i++) {
+            mejores[i] = Math.min(mejores[i], tiempos[i]);
+        }
+    }
+
+    private static void mostrar(String variante, long[] tiempos) {
+        System.out.printf("%-13s registro %6.2f ms, consultas %6.2f ms, lista %6.2f ms, total %6.2f ms%n", variante,
+                tiempos[0] / 1e6, tiempos[1] / 1e6, tiempos[2] / 1e6, (tiempos[0] + tiempos[1] + tiempos[2]) / 1e6);
+    }
+}